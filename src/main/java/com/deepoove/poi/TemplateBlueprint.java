@@ -0,0 +1,372 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.openxml4j.exceptions.OLE2NotOfficeXmlFileException;
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocument1;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTHdrFtr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.exception.ResolverException;
+import com.deepoove.poi.render.compute.BindingPlan;
+import com.deepoove.poi.resolver.TemplateIndex;
+import com.deepoove.poi.resolver.TemplateResolver;
+import com.deepoove.poi.template.BlockTemplate;
+import com.deepoove.poi.template.MetaTemplate;
+import com.deepoove.poi.template.run.RunTemplate;
+import com.deepoove.poi.util.PoitlIOUtils;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
+import com.deepoove.poi.xwpf.XWPFTextboxContent;
+
+/**
+ * Compiled, immutable form of a template which can be rendered many times
+ *
+ * <p>
+ * The template is parsed and resolved only once, runs containing tags are
+ * refactored and the result is kept in memory. Each {@link #render(Object)}
+ * works on a private {@link XWPFTemplate} created from the refactored document,
+ * so a blueprint can be shared by multiple threads.
+ * </p>
+ * <p>
+ * The parsed xml of body, headers and footers is kept, a private template
+ * reads the package without them and copies the parsed xml, so only the
+ * small parts such as styles and numbering are parsed again.
+ * </p>
+ * <p>
+ * The locations of tags are recorded in a {@link TemplateIndex}, the private
+ * templates and the blueprints {@link #save(OutputStream) saved} to disk are
+ * resolved by the index without parsing the text of runs again.
+ * </p>
+ * <p>
+ * The private templates share the {@link BindingPlan binding plans} of the
+ * model classes, the expressions of tags are bound once.
+ * </p>
+ *
+ * @author Sayi
+ * @since 1.10.1
+ */
+public final class TemplateBlueprint {
+
+    private static Logger logger = LoggerFactory.getLogger(TemplateBlueprint.class);
+
+    private static final int MAGIC = 0x504f544c;
+    private static final short VERSION = 1;
+
+    private final byte[] content;
+    // the package without the xml of body, headers and footers
+    private final byte[] skeleton;
+    // parsed xml of the document, read only, copied by the private templates
+    private final CTDocument1 document;
+    // xml of headers and footers by part name, read only as the document
+    private final Map<String, CTHdrFtr> headerFooters = new HashMap<String, CTHdrFtr>();
+    private final Configure config;
+    private final int tagCount;
+    private final TemplateIndex index;
+    private final Map<Class<?>, BindingPlan> bindingPlans = new ConcurrentHashMap<Class<?>, BindingPlan>();
+
+    /**
+     * @param content the refactored document
+     * @param doc     the document read from content, the xml of body, headers
+     *                and footers is moved out of it
+     */
+    private TemplateBlueprint(byte[] content, NiceXWPFDocument doc, Configure config, int tagCount,
+            TemplateIndex index) throws IOException {
+        this.content = content;
+        this.config = config;
+        this.tagCount = tagCount;
+        this.index = index;
+        this.document = (CTDocument1) doc.getDocument().copy();
+        for (XWPFHeaderFooter headerFooter : headerFooters(doc)) {
+            this.headerFooters.put(partName(headerFooter), (CTHdrFtr) headerFooter._getHdrFtr().copy());
+            headerFooter._getHdrFtr().set(CTHdrFtr.Factory.newInstance());
+        }
+        // keep the section of body, the headers and footers are located by it
+        CTBody body = doc.getDocument().getBody();
+        CTSectPr sectPr = null == body || !body.isSetSectPr() ? null : (CTSectPr) body.getSectPr().copy();
+        if (null != body) body.set(CTBody.Factory.newInstance());
+        if (null != sectPr) body.setSectPr(sectPr);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+        this.skeleton = out.toByteArray();
+    }
+
+    public static TemplateBlueprint compile(String path) {
+        return compile(new File(path));
+    }
+
+    public static TemplateBlueprint compile(File file) {
+        return compile(file, Configure.createDefault());
+    }
+
+    public static TemplateBlueprint compile(InputStream inputStream) {
+        return compile(inputStream, Configure.createDefault());
+    }
+
+    public static TemplateBlueprint compile(String path, Configure config) {
+        return compile(new File(path), config);
+    }
+
+    public static TemplateBlueprint compile(File file, Configure config) {
+        try {
+            return compile(new FileInputStream(file), config);
+        } catch (FileNotFoundException e) {
+            throw new ResolverException("Cannot find the file [" + file.getPath() + "]", e);
+        }
+    }
+
+    public static TemplateBlueprint compile(InputStream inputStream, Configure config) {
+        NiceXWPFDocument doc = null;
+        try {
+            doc = new NiceXWPFDocument(inputStream);
+            // refactor the runs of tags in place, so that the copies do not need it
+            List<MetaTemplate> templates = new TemplateResolver(config).resolveDocument(doc);
+            TemplateIndex index = null;
+            try {
+                index = TemplateIndex.of(doc, templates, config);
+            } catch (ResolverException e) {
+                logger.warn("Cannot index the templates, the copies will be resolved again: {}", e.getMessage());
+            }
+            writeTextboxes(templates);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            doc.write(out);
+            return new TemplateBlueprint(out.toByteArray(), doc, config, templates.size(), index);
+        } catch (OLE2NotOfficeXmlFileException e) {
+            throw new ResolverException("Compile template failed, poi-tl currently only supports .docx format", e);
+        } catch (IOException e) {
+            throw new ResolverException("Compile template failed", e);
+        } finally {
+            PoitlIOUtils.closeQuietlyMulti(doc, inputStream);
+        }
+    }
+
+    /**
+     * textbox content is a copy of the xml, write the refactored runs back
+     */
+    private static void writeTextboxes(List<MetaTemplate> templates) {
+        Set<XWPFTextboxContent> textboxes = new LinkedHashSet<>();
+        collectTextboxes(templates, textboxes);
+        for (XWPFTextboxContent textbox : textboxes) {
+            textbox.getXmlObject().set(textbox.getCTTxbxContent());
+        }
+    }
+
+    private static void collectTextboxes(List<MetaTemplate> templates, Set<XWPFTextboxContent> textboxes) {
+        for (MetaTemplate template : templates) {
+            if (template instanceof BlockTemplate) {
+                BlockTemplate block = (BlockTemplate) template;
+                collectTextboxes(Collections.singletonList(block.getStartMark()), textboxes);
+                collectTextboxes(block.getTemplates(), textboxes);
+                collectTextboxes(Collections.singletonList(block.getEndMark()), textboxes);
+            } else if (template instanceof RunTemplate) {
+                IBody body = ((XWPFParagraph) ((RunTemplate) template).getRun().getParent()).getBody();
+                if (body instanceof XWPFTextboxContent) textboxes.add((XWPFTextboxContent) body);
+            }
+        }
+    }
+
+    private static List<XWPFHeaderFooter> headerFooters(NiceXWPFDocument doc) {
+        List<XWPFHeaderFooter> headerFooters = new ArrayList<XWPFHeaderFooter>(doc.getHeaderList());
+        headerFooters.addAll(doc.getFooterList());
+        return headerFooters;
+    }
+
+    private static String partName(XWPFHeaderFooter headerFooter) {
+        return headerFooter.getPackagePart().getPartName().getName();
+    }
+
+    /**
+     * Load the blueprint saved by {@link #save(OutputStream)}, the config must
+     * have the same tag prefix and suffix as the saved one, the stream will be
+     * closed
+     *
+     * @param inputStream
+     * @param config
+     * @return
+     */
+    public static TemplateBlueprint load(InputStream inputStream, Configure config) {
+        NiceXWPFDocument doc = null;
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+            if (in.readInt() != MAGIC) throw new ResolverException("Not a template blueprint");
+            short version = in.readShort();
+            if (version != VERSION) throw new ResolverException("Unsupported template blueprint version: " + version);
+            String prefix = in.readUTF();
+            String suffix = in.readUTF();
+            if (!prefix.equals(config.getGramerPrefix()) || !suffix.equals(config.getGramerSuffix())) {
+                throw new ResolverException("The blueprint is compiled with tag " + prefix + suffix
+                        + ", but the config is " + config.getGramerPrefix() + config.getGramerSuffix());
+            }
+            int tagCount = in.readInt();
+            TemplateIndex index = in.readBoolean() ? TemplateIndex.read(in) : null;
+            byte[] content = new byte[in.readInt()];
+            in.readFully(content);
+            doc = new NiceXWPFDocument(new ByteArrayInputStream(content));
+            return new TemplateBlueprint(content, doc, config, tagCount, index);
+        } catch (IOException e) {
+            throw new ResolverException("Load template blueprint failed", e);
+        } finally {
+            PoitlIOUtils.closeQuietlyMulti(doc, inputStream);
+        }
+    }
+
+    public static TemplateBlueprint load(File file, Configure config) {
+        try {
+            return load(new FileInputStream(file), config);
+        } catch (FileNotFoundException e) {
+            throw new ResolverException("Cannot find the file [" + file.getPath() + "]", e);
+        }
+    }
+
+    /**
+     * Save the refactored document with the tag locations, the loaded
+     * blueprint does not need to parse the text of runs
+     *
+     * @param out
+     * @throws IOException
+     */
+    public void save(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeUTF(config.getGramerPrefix());
+        data.writeUTF(config.getGramerSuffix());
+        data.writeInt(tagCount);
+        data.writeBoolean(null != index);
+        if (null != index) index.write(data);
+        data.writeInt(content.length);
+        data.write(content);
+        data.flush();
+    }
+
+    /**
+     * Create a private template which can be rendered once, the xml of body,
+     * headers and footers is copied from the parsed one
+     *
+     * @return
+     */
+    public XWPFTemplate newTemplate() {
+        NiceXWPFDocument doc = null;
+        try {
+            doc = new NiceXWPFDocument(new ByteArrayInputStream(skeleton));
+            doc.getDocument().set(document);
+            for (XWPFHeaderFooter headerFooter : headerFooters(doc)) {
+                CTHdrFtr xml = headerFooters.get(partName(headerFooter));
+                if (null != xml) headerFooter._getHdrFtr().set(xml);
+            }
+            doc.reload();
+            return XWPFTemplate.compile(doc, config, index, bindingPlans);
+        } catch (IOException e) {
+            PoitlIOUtils.closeQuietly(doc);
+            throw new ResolverException("Create template failed", e);
+        } catch (RuntimeException e) {
+            PoitlIOUtils.closeQuietly(doc);
+            throw e;
+        }
+    }
+
+    /**
+     * Render a private copy of the template by data model, do'not forget invoke
+     * {@link XWPFTemplate#close()}
+     *
+     * @param model render data
+     * @return
+     */
+    public XWPFTemplate render(Object model) {
+        return newTemplate().render(model);
+    }
+
+    /**
+     * Render a private copy of the template by data model and write to
+     * OutputStream, the template will be closed
+     *
+     * @param model render data
+     * @param out   output
+     * @throws IOException
+     */
+    public void render(Object model, OutputStream out) throws IOException {
+        XWPFTemplate template = newTemplate();
+        try {
+            template.render(model, out);
+        } finally {
+            PoitlIOUtils.closeQuietly(template);
+        }
+    }
+
+    /**
+     * Get configuration
+     *
+     * @return
+     */
+    public Configure getConfig() {
+        return config;
+    }
+
+    /**
+     * The tag locations, null if the templates cannot be indexed
+     *
+     * @return
+     */
+    public TemplateIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * The number of top-level tags resolved at compile time
+     *
+     * @return
+     */
+    public int getTagCount() {
+        return tagCount;
+    }
+
+    /**
+     * The size of the compiled template in bytes
+     *
+     * @return
+     */
+    public int size() {
+        return content.length;
+    }
+
+}
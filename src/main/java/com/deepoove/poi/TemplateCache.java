@@ -0,0 +1,249 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.exception.ResolverException;
+import com.deepoove.poi.util.ByteUtils;
+
+/**
+ * Bounded LRU cache of {@link TemplateBlueprint}
+ *
+ * <p>
+ * File sources are keyed by the canonical path and validated by the last
+ * modified time and length, a modified file is compiled again. Stream sources
+ * are keyed by the SHA-256 of the content. Entries are evicted in least
+ * recently used order when either the number of entries or the total weight
+ * (size of the compiled blueprints in bytes) exceeds the limit. Each template
+ * is compiled once by one of the threads missing it at the same time.
+ * </p>
+ *
+ * @author Sayi
+ * @since 1.10.1
+ */
+public class TemplateCache {
+
+    private final Configure config;
+    private final int maximumSize;
+    private final long maximumWeight;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(32, 0.75f, true);
+    private long weight;
+    private final ConcurrentMap<String, CompletableFuture<TemplateBlueprint>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public TemplateCache(int maximumSize) {
+        this(Configure.createDefault(), maximumSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param config        config used to compile all the templates
+     * @param maximumSize   the maximum number of blueprints
+     * @param maximumWeight the maximum total size of blueprints in bytes
+     */
+    public TemplateCache(Configure config, int maximumSize, long maximumWeight) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("maximumSize must be greater than 0");
+        if (maximumWeight <= 0) throw new IllegalArgumentException("maximumWeight must be greater than 0");
+        this.config = config;
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+    }
+
+    public TemplateBlueprint get(String path) {
+        return get(new File(path));
+    }
+
+    public TemplateBlueprint get(File file) {
+        String key = keyOf(file);
+        String stamp = file.lastModified() + ":" + file.length();
+        return load(key, stamp, () -> TemplateBlueprint.compile(file, config));
+    }
+
+    /**
+     * the stream will be read fully and closed
+     *
+     * @param inputStream
+     * @return
+     */
+    public TemplateBlueprint get(InputStream inputStream) {
+        byte[] bytes = ByteUtils.toByteArray(inputStream);
+        if (null == bytes) throw new ResolverException("Cannot read the template stream");
+        return get(bytes);
+    }
+
+    /**
+     * Get the blueprint of the content
+     *
+     * @param content bytes of the template
+     * @return
+     */
+    public TemplateBlueprint get(byte[] content) {
+        String key = "sha256:" + ByteUtils.sha256Hex(content);
+        return load(key, "", () -> TemplateBlueprint.compile(new ByteArrayInputStream(content), config));
+    }
+
+    /**
+     * Discard the blueprint of the file
+     *
+     * @param file
+     */
+    public void invalidate(File file) {
+        remove(keyOf(file));
+    }
+
+    /**
+     * Discard the blueprint of the content
+     *
+     * @param content
+     */
+    public void invalidate(byte[] content) {
+        remove("sha256:" + ByteUtils.sha256Hex(content));
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public Configure getConfig() {
+        return config;
+    }
+
+    /**
+     * Compile the template once per key, the concurrent misses of the same key
+     * wait for the compiling one
+     */
+    private TemplateBlueprint load(String key, String stamp, Supplier<TemplateBlueprint> compiler) {
+        TemplateBlueprint blueprint = lookup(key, stamp);
+        if (null != blueprint) return blueprint;
+        String loadingKey = key + "@" + stamp;
+        CompletableFuture<TemplateBlueprint> future = new CompletableFuture<TemplateBlueprint>();
+        CompletableFuture<TemplateBlueprint> pending = loading.putIfAbsent(loadingKey, future);
+        if (null != pending) return join(pending);
+        try {
+            // stored by another thread between the lookup and the loading
+            blueprint = peek(key, stamp);
+            if (null == blueprint) blueprint = store(key, stamp, compiler.get());
+            future.complete(blueprint);
+            return blueprint;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(loadingKey, future);
+        }
+    }
+
+    private static TemplateBlueprint join(CompletableFuture<TemplateBlueprint> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    private synchronized TemplateBlueprint peek(String key, String stamp) {
+        Entry entry = entries.get(key);
+        return null != entry && entry.stamp.equals(stamp) ? entry.blueprint : null;
+    }
+
+    private synchronized TemplateBlueprint lookup(String key, String stamp) {
+        Entry entry = entries.get(key);
+        if (null != entry && entry.stamp.equals(stamp)) {
+            hitCount.incrementAndGet();
+            return entry.blueprint;
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    private synchronized TemplateBlueprint store(String key, String stamp, TemplateBlueprint blueprint) {
+        Entry previous = entries.put(key, new Entry(stamp, blueprint));
+        if (null != previous) weight -= previous.blueprint.size();
+        weight += blueprint.size();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        // always keep the latest one even if it's heavier than the maximum weight
+        while ((entries.size() > maximumSize || weight > maximumWeight) && entries.size() > 1) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            weight -= eldest.blueprint.size();
+            evictionCount.incrementAndGet();
+        }
+        return blueprint;
+    }
+
+    private synchronized void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (null != entry) weight -= entry.blueprint.size();
+    }
+
+    private static String keyOf(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (Exception e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    private static class Entry {
+        final String stamp;
+        final TemplateBlueprint blueprint;
+
+        Entry(String stamp, TemplateBlueprint blueprint) {
+            this.stamp = stamp;
+            this.blueprint = blueprint;
+        }
+    }
+
+}
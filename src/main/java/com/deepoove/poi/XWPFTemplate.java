@@ -23,7 +23,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 import org.apache.poi.Version;
 import org.apache.poi.openxml4j.exceptions.OLE2NotOfficeXmlFileException;
@@ -34,7 +38,11 @@ import com.deepoove.poi.config.Configure;
 import com.deepoove.poi.exception.ResolverException;
 import com.deepoove.poi.render.DefaultRender;
 import com.deepoove.poi.render.Render;
+import com.deepoove.poi.render.compute.BindingPlan;
+import com.deepoove.poi.render.compute.DefaultELRenderDataCompute;
+import com.deepoove.poi.render.compute.RenderDataCompute;
 import com.deepoove.poi.resolver.Resolver;
+import com.deepoove.poi.resolver.TemplateIndex;
 import com.deepoove.poi.resolver.TemplateResolver;
 import com.deepoove.poi.template.MetaTemplate;
 import com.deepoove.poi.util.PoitlIOUtils;
@@ -55,12 +63,15 @@ import com.deepoove.poi.xwpf.NiceXWPFDocument;
 public class XWPFTemplate implements Closeable {
     private static Logger logger = LoggerFactory.getLogger(XWPFTemplate.class);
     private static final String SUPPORT_MINIMUM_VERSION = "4.1.2";
+    private static final int MAXIMUM_BINDING_PLANS = 64;
 
     private NiceXWPFDocument doc;
     private Configure config;
     private Resolver resolver;
     private Render renderer;
     private List<MetaTemplate> eleTemplates;
+    private Map<Class<?>, BindingPlan> bindingPlans;
+    private Executor mergeExecutor;
 
     static {
         try {
@@ -101,14 +112,24 @@ public class XWPFTemplate implements Closeable {
     }
 
     public static XWPFTemplate compile(InputStream inputStream, Configure config) {
+        return compile(inputStream, config, null);
+    }
+
+    /**
+     * compile the refactored document by the tag locations of index
+     */
+    static XWPFTemplate compile(InputStream inputStream, Configure config, TemplateIndex index) {
+        return compile(inputStream, config, index, new ConcurrentHashMap<Class<?>, BindingPlan>());
+    }
+
+    /**
+     * compile the refactored document, the binding plans are shared by the
+     * templates of one blueprint
+     */
+    static XWPFTemplate compile(InputStream inputStream, Configure config, TemplateIndex index,
+            Map<Class<?>, BindingPlan> bindingPlans) {
         try {
-            XWPFTemplate template = new XWPFTemplate();
-            template.config = config;
-            template.doc = new NiceXWPFDocument(inputStream);
-            template.resolver = new TemplateResolver(template.config);
-            template.renderer = new DefaultRender();
-            template.eleTemplates = template.resolver.resolveDocument(template.doc);
-            return template;
+            return compile(new NiceXWPFDocument(inputStream), config, index, bindingPlans);
         } catch (OLE2NotOfficeXmlFileException e) {
             logger.error("Poi-tl currently only supports .docx format");
             throw new ResolverException("Compile template failed", e);
@@ -117,6 +138,64 @@ public class XWPFTemplate implements Closeable {
         }
     }
 
+    /**
+     * compile the refactored document which is already read
+     */
+    static XWPFTemplate compile(NiceXWPFDocument doc, Configure config, TemplateIndex index,
+            Map<Class<?>, BindingPlan> bindingPlans) {
+        XWPFTemplate template = new XWPFTemplate();
+        template.config = config;
+        template.bindingPlans = bindingPlans;
+        template.mergeExecutor = config.getMergeExecutor();
+        template.doc = doc;
+        TemplateResolver resolver = new TemplateResolver(template.config);
+        template.resolver = resolver;
+        template.renderer = new DefaultRender();
+        template.eleTemplates = null == index ? resolver.resolveDocument(template.doc)
+                : resolver.resolveDocument(template.doc, index);
+        return template;
+    }
+
+    /**
+     * Create the compute of the data model, the tags are evaluated by the
+     * binding plan of the model class if the default EL is used
+     * 
+     * @param model data model or {@link com.deepoove.poi.render.compute.EnvModel}
+     * @return
+     */
+    public RenderDataCompute newRenderDataCompute(Object model) {
+        RenderDataCompute compute = config.getRenderDataComputeFactory().newCompute(model);
+        if (compute instanceof DefaultELRenderDataCompute) {
+            ((DefaultELRenderDataCompute) compute).setBindingPlans(this::getBindingPlan);
+        }
+        return compute;
+    }
+
+    /**
+     * Get the binding plan of the tags for the root model class, the plan is
+     * planned once and reused by the following renders
+     * 
+     * @param rootClass
+     * @return
+     */
+    public BindingPlan getBindingPlan(Class<?> rootClass) {
+        BindingPlan plan = bindingPlans.get(rootClass);
+        if (null != plan) return plan;
+        plan = BindingPlan.of(rootClass, eleTemplates);
+        BindingPlan previous = bindingPlans.putIfAbsent(rootClass, plan);
+        if (null != previous) return previous;
+        trimBindingPlans(rootClass);
+        return plan;
+    }
+
+    private void trimBindingPlans(Class<?> retained) {
+        // evict the other plans one by one, they are planned again on demand
+        Iterator<Class<?>> iterator = bindingPlans.keySet().iterator();
+        while (bindingPlans.size() > MAXIMUM_BINDING_PLANS && iterator.hasNext()) {
+            if (iterator.next() != retained) iterator.remove();
+        }
+    }
+
     /**
      * Render the template by data model
      * 
@@ -185,7 +264,7 @@ public class XWPFTemplate implements Closeable {
      * @param doc load new template document
      */
     public void reload(NiceXWPFDocument doc) {
-        PoitlIOUtils.closeLoggerQuietly(this.doc);
+        if (doc != this.doc) PoitlIOUtils.closeLoggerQuietly(this.doc);
         this.doc = doc;
         this.eleTemplates = this.resolver.resolveDocument(doc);
     }
@@ -222,6 +301,25 @@ public class XWPFTemplate implements Closeable {
         return config;
     }
 
+    /**
+     * Get the executor to prepare the included documents, defaults to
+     * {@link Configure#getMergeExecutor()}
+     * 
+     * @return null means the current thread
+     */
+    public Executor getMergeExecutor() {
+        return mergeExecutor;
+    }
+
+    /**
+     * Set the executor to prepare the included documents of this template
+     * 
+     * @param mergeExecutor null means the current thread
+     */
+    public void setMergeExecutor(Executor mergeExecutor) {
+        this.mergeExecutor = mergeExecutor;
+    }
+
     /**
      * Get Resolver
      * 
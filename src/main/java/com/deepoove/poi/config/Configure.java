@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.poi.xddf.usermodel.chart.ChartTypes;
@@ -123,6 +124,18 @@ public class Configure implements Cloneable {
      */
     protected Map<String, Method> spELFunction = new HashMap<String, Method>();
 
+    /**
+     * the executor to render and prepare the merged documents in parallel, null
+     * means the current thread
+     */
+    protected Executor mergeExecutor;
+
+    /**
+     * the maximum number of merged documents rendered or prepared at the same
+     * time by the merge executor
+     */
+    protected int mergeParallelism = Runtime.getRuntime().availableProcessors();
+
     Configure() {
         plugin(GramerSymbol.TEXT, new TextRenderPolicy());
         plugin(GramerSymbol.TEXT_ALIAS, new TextRenderPolicy());
@@ -270,6 +283,14 @@ public class Configure implements Cloneable {
         return spELFunction;
     }
 
+    public Executor getMergeExecutor() {
+        return mergeExecutor;
+    }
+
+    public int getMergeParallelism() {
+        return mergeParallelism;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
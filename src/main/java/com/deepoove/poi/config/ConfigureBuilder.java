@@ -16,10 +16,13 @@
 package com.deepoove.poi.config;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.poi.xddf.usermodel.chart.ChartTypes;
+import org.springframework.expression.spel.SpelCompilerMode;
 
 import com.deepoove.poi.config.Configure.ValidErrorHandler;
 import com.deepoove.poi.policy.RenderPolicy;
@@ -28,6 +31,7 @@ import com.deepoove.poi.render.compute.RenderDataComputeFactory;
 import com.deepoove.poi.render.compute.SpELRenderDataCompute;
 import com.deepoove.poi.resolver.ElementTemplateFactory;
 import com.deepoove.poi.template.MetaTemplate;
+import com.deepoove.poi.util.Preconditions;
 import com.deepoove.poi.util.RegexUtils;
 
 /**
@@ -76,6 +80,24 @@ public class ConfigureBuilder {
         return setRenderDataComputeFactory(model -> new SpELRenderDataCompute(model, true, spELFunction));
     }
 
+    /**
+     * Use SpEL with the compiler mode, the compiled expressions are faster when
+     * the types of data stay the same, they are shared by the templates of this
+     * configure
+     * 
+     * @param compilerMode
+     * @return
+     */
+    public ConfigureBuilder useSpringEL(SpelCompilerMode compilerMode) {
+        return useSpringEL(true, Collections.emptyMap(), compilerMode);
+    }
+
+    public ConfigureBuilder useSpringEL(boolean isStrict, Map<String, Method> spELFunction,
+            SpelCompilerMode compilerMode) {
+        usedSpringEL = true;
+        return setRenderDataComputeFactory(SpELRenderDataCompute.factory(isStrict, spELFunction, compilerMode));
+    }
+
     public ConfigureBuilder useDefaultEL(boolean isStrict) {
         usedSpringEL = false;
         return setRenderDataComputeFactory(model -> new DefaultELRenderDataCompute(model, isStrict));
@@ -96,6 +118,39 @@ public class ConfigureBuilder {
         return this;
     }
 
+    /**
+     * Render and prepare the documents of include in parallel, at most the
+     * number of processors at the same time
+     * 
+     * @see #setMergeExecutor(Executor, int)
+     * @param mergeExecutor
+     * @return
+     */
+    public ConfigureBuilder setMergeExecutor(Executor mergeExecutor) {
+        return setMergeExecutor(mergeExecutor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Render and prepare the documents of include in parallel.
+     * <p>
+     * The rendering thread waits for the tasks submitted to the executor, so
+     * the executor must not run its tasks on the rendering thread's own pool
+     * if the pool is bounded. The includes nested in the included documents
+     * are merged on the thread of the task, without the executor.
+     * </p>
+     * 
+     * @param mergeExecutor the executor, null means the current thread
+     * @param parallelism   the maximum number of documents rendered or
+     *                      prepared at the same time of one include
+     * @return
+     */
+    public ConfigureBuilder setMergeExecutor(Executor mergeExecutor, int parallelism) {
+        Preconditions.requireGreaterThan(parallelism, 0, "parallelism must be greater than 0");
+        config.mergeExecutor = mergeExecutor;
+        config.mergeParallelism = parallelism;
+        return this;
+    }
+
     public ConfigureBuilder addPlugin(char c, RenderPolicy policy) {
         config.plugin(c, policy);
         return this;
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.deepoove.poi.data.style.CellStyle;
+import com.deepoove.poi.data.style.RowStyle;
+import com.deepoove.poi.data.style.Style;
+import com.deepoove.poi.data.style.TableStyle;
+
+/**
+ * Data for large table stored by columns, the values of column are kept in one
+ * array and the styles are shared by all the cells of column.
+ * 
+ * <p>
+ * The cells of data rows are plain text, use {@link TableRenderData} for cells
+ * with rich content.
+ * </p>
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+public class ColumnarTableRenderData implements RenderData {
+
+    private static final long serialVersionUID = 1L;
+
+    private RowRenderData header;
+    private List<Column> columns = new ArrayList<>();
+    private RowStyle rowStyle;
+    private TableStyle tableStyle;
+
+    public RowRenderData getHeader() {
+        return header;
+    }
+
+    /**
+     * @param header the optional first row
+     */
+    public void setHeader(RowRenderData header) {
+        this.header = header;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<Column> columns) {
+        this.columns = columns;
+    }
+
+    public RowStyle getRowStyle() {
+        return rowStyle;
+    }
+
+    /**
+     * @param rowStyle style of all data rows
+     */
+    public void setRowStyle(RowStyle rowStyle) {
+        this.rowStyle = rowStyle;
+    }
+
+    public TableStyle getTableStyle() {
+        return tableStyle;
+    }
+
+    public void setTableStyle(TableStyle tableStyle) {
+        this.tableStyle = tableStyle;
+    }
+
+    public ColumnarTableRenderData addColumn(Column column) {
+        columns.add(column);
+        return this;
+    }
+
+    public int obtainColSize() {
+        if (null == columns) return 0;
+        return columns.size();
+    }
+
+    /**
+     * @return the size of data rows
+     */
+    public int obtainRowSize() {
+        if (null == columns || columns.isEmpty()) return 0;
+        return columns.get(0).size();
+    }
+
+    /**
+     * Values and styles of column
+     */
+    public static class Column implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * String[], int[], long[], double[] or Object[]
+         */
+        private final Object values;
+        private final int size;
+        private String format;
+        private CellStyle cellStyle;
+        private Style textStyle;
+
+        private Column(Object values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        public static Column of(String... values) {
+            return new Column(values, values.length);
+        }
+
+        public static Column of(Object[] values) {
+            return new Column(values, values.length);
+        }
+
+        public static Column of(int[] values) {
+            return new Column(values, values.length);
+        }
+
+        public static Column of(long[] values) {
+            return new Column(values, values.length);
+        }
+
+        /**
+         * @param values
+         * @param format the format of {@link String#format(String, Object...)},
+         *               null means {@link Double#toString(double)}
+         * @return
+         */
+        public static Column of(double[] values, String format) {
+            Column column = new Column(values, values.length);
+            column.setFormat(format);
+            return column;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param row
+         * @return the text of cell, empty if the value is null
+         */
+        public String getText(int row) {
+            if (values instanceof String[]) {
+                String value = ((String[]) values)[row];
+                return null == value ? "" : value;
+            }
+            if (values instanceof int[]) return Integer.toString(((int[]) values)[row]);
+            if (values instanceof long[]) return Long.toString(((long[]) values)[row]);
+            if (values instanceof double[]) {
+                double value = ((double[]) values)[row];
+                return null == format ? Double.toString(value) : String.format(format, value);
+            }
+            Object value = ((Object[]) values)[row];
+            return null == value ? "" : value.toString();
+        }
+
+        public Object getValues() {
+            return values;
+        }
+
+        public String getFormat() {
+            return format;
+        }
+
+        public void setFormat(String format) {
+            this.format = format;
+        }
+
+        public CellStyle getCellStyle() {
+            return cellStyle;
+        }
+
+        public void setCellStyle(CellStyle cellStyle) {
+            this.cellStyle = cellStyle;
+        }
+
+        public Style getTextStyle() {
+            return textStyle;
+        }
+
+        public void setTextStyle(Style textStyle) {
+            this.textStyle = textStyle;
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.data;
+
+import com.deepoove.poi.data.ColumnarTableRenderData.Column;
+import com.deepoove.poi.data.style.CellStyle;
+import com.deepoove.poi.data.style.RowStyle;
+import com.deepoove.poi.data.style.Style;
+import com.deepoove.poi.data.style.TableStyle;
+
+/**
+ * Factory method to create {@link ColumnarTableRenderData}, the table styles
+ * are same as {@link Tables}
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+public class ColumnarTables {
+    private ColumnarTables() {
+    }
+
+    public static ColumnarTableBuilder of(TableStyle tableStyle) {
+        return new ColumnarTableBuilder(tableStyle);
+    }
+
+    public static ColumnarTableBuilder ofWidth(double cm) {
+        return ofWidth(cm, null);
+    }
+
+    public static ColumnarTableBuilder ofWidth(double cm, double[] colWidthsCm) {
+        return of(Tables.ofWidth(cm, colWidthsCm).create().getTableStyle());
+    }
+
+    public static ColumnarTableBuilder ofPercentWidth(String percent) {
+        return ofPercentWidth(percent, null);
+    }
+
+    public static ColumnarTableBuilder ofPercentWidth(String percent, int[] colWidthsPercent) {
+        return of(Tables.ofPercentWidth(percent, colWidthsPercent).create().getTableStyle());
+    }
+
+    public static ColumnarTableBuilder ofAutoWidth() {
+        return of(Tables.ofAutoWidth().create().getTableStyle());
+    }
+
+    /**
+     * Builder to build {@link ColumnarTableRenderData}
+     *
+     */
+    public static class ColumnarTableBuilder implements RenderDataBuilder<ColumnarTableRenderData> {
+
+        private ColumnarTableRenderData data;
+
+        private ColumnarTableBuilder(TableStyle tableStyle) {
+            data = new ColumnarTableRenderData();
+            data.setTableStyle(tableStyle);
+        }
+
+        public ColumnarTableBuilder header(RowRenderData header) {
+            data.setHeader(header);
+            return this;
+        }
+
+        public ColumnarTableBuilder header(String... header) {
+            return header(Rows.of(header).create());
+        }
+
+        public ColumnarTableBuilder rowStyle(RowStyle rowStyle) {
+            data.setRowStyle(rowStyle);
+            return this;
+        }
+
+        public ColumnarTableBuilder addColumn(Column column) {
+            data.addColumn(column);
+            return this;
+        }
+
+        public ColumnarTableBuilder addColumn(String[] values) {
+            return addColumn(Column.of(values));
+        }
+
+        public ColumnarTableBuilder addColumn(String[] values, CellStyle cellStyle, Style textStyle) {
+            Column column = Column.of(values);
+            column.setCellStyle(cellStyle);
+            column.setTextStyle(textStyle);
+            return addColumn(column);
+        }
+
+        public ColumnarTableBuilder addColumn(int[] values) {
+            return addColumn(Column.of(values));
+        }
+
+        public ColumnarTableBuilder addColumn(long[] values) {
+            return addColumn(Column.of(values));
+        }
+
+        public ColumnarTableBuilder addColumn(double[] values, String format) {
+            return addColumn(Column.of(values, format));
+        }
+
+        @Override
+        public ColumnarTableRenderData create() {
+            return data;
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.data;
+
+import java.util.Iterator;
+
+import com.deepoove.poi.exception.RenderException;
+
+/**
+ * @author Sayi
+ * @since 1.10.1
+ */
+class IteratorDataSource<T> implements RenderDataSource<T> {
+
+    private final Iterator<T> iterator;
+    private AutoCloseable onClose;
+
+    IteratorDataSource(Iterator<T> iterator, AutoCloseable onClose) {
+        this.iterator = iterator;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public T next() {
+        return iterator.next();
+    }
+
+    @Override
+    public void close() {
+        if (null == onClose) return;
+        AutoCloseable closeable = onClose;
+        onClose = null;
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            throw new RenderException("Close data source error: " + e.getMessage(), e);
+        }
+    }
+
+}
@@ -16,10 +16,12 @@
 package com.deepoove.poi.data;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 
 /**
  * Define the matrix to be merged and the matrix cannot overlap.
@@ -141,6 +143,8 @@ public class MergeCellRule implements Serializable {
 
     public static final class MergeCellRuleBuilder {
         private Map<Grid, Grid> map = new LinkedHashMap<>();
+        // the merged matrixes crossing each row, sorted by the start column
+        private Map<Integer, TreeMap<Integer, Grid[]>> rowIndex = new HashMap<>();
 
         private MergeCellRuleBuilder() {
         }
@@ -150,17 +154,29 @@ public class MergeCellRule implements Serializable {
             if (from.equals(to)) {
                 throw new IllegalArgumentException("The merged grid of from and to cannot be same!");
             }
-            Iterator<Entry<Grid, Grid>> iterator = map.entrySet().iterator();
-            while (iterator.hasNext()) {
-                Entry<Grid, Grid> next = iterator.next();
-                Grid key = next.getKey();
-                Grid value = next.getValue();
-                if (from.inside(key, value) || to.inside(key, value)) {
-                    throw new IllegalArgumentException("The grid to be merged overlap! from " + from + " to " + to
-                            + " conflict with " + key + " to " + value);
+            int startI = Math.min(from.i, to.i);
+            int endI = Math.max(from.i, to.i);
+            int startJ = Math.min(from.j, to.j);
+            int endJ = Math.max(from.j, to.j);
+            for (int i = startI; i <= endI; i++) {
+                TreeMap<Integer, Grid[]> matrixes = rowIndex.get(i);
+                if (null == matrixes) continue;
+                // the matrixes never overlap, so only the nearest one on the left may reach startJ
+                Entry<Integer, Grid[]> nearest = matrixes.floorEntry(endJ);
+                if (null != nearest) {
+                    Grid key = nearest.getValue()[0];
+                    Grid value = nearest.getValue()[1];
+                    if (Math.max(key.j, value.j) >= startJ) {
+                        throw new IllegalArgumentException("The grid to be merged overlap! from " + from + " to "
+                                + to + " conflict with " + key + " to " + value);
+                    }
                 }
             }
 
+            Grid[] matrix = new Grid[] { from, to };
+            for (int i = startI; i <= endI; i++) {
+                rowIndex.computeIfAbsent(i, k -> new TreeMap<>()).put(startJ, matrix);
+            }
             map.put(from, to);
             return this;
         }
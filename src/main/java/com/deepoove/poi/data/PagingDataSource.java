@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.data;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+import com.deepoove.poi.util.Preconditions;
+
+/**
+ * Only the page being rendered is held in memory
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+class PagingDataSource<T> implements RenderDataSource<T> {
+
+    private final int pageSize;
+    private final BiFunction<Integer, Integer, List<T>> pageLoader;
+    private int offset;
+    private boolean lastPage;
+    private Iterator<T> page = Collections.emptyIterator();
+
+    PagingDataSource(int pageSize, BiFunction<Integer, Integer, List<T>> pageLoader) {
+        Preconditions.requireGreaterThan(pageSize, 0, "The size of page must be positive!");
+        this.pageSize = pageSize;
+        this.pageLoader = pageLoader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext()) {
+            if (lastPage) return false;
+            List<T> items = pageLoader.apply(offset, pageSize);
+            if (null == items) items = Collections.emptyList();
+            offset += items.size();
+            lastPage = items.size() < pageSize;
+            page = items.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return page.next();
+    }
+
+}
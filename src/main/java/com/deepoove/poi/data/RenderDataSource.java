@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.data;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.stream.BaseStream;
+
+/**
+ * Cursor of loop data, the items are read one by one when the loop renders
+ * them, so they don't have to be held in memory at once.
+ * 
+ * <p>
+ * The source is consumed exactly once and closed after the loop. Loops also
+ * accept {@link java.util.stream.Stream} and {@link Spliterator} as sources.
+ * </p>
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+public interface RenderDataSource<T> extends Iterator<T>, Closeable {
+
+    /**
+     * release the resources of source, called after the loop
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * @param iterator
+     * @param onClose  called when the source is closed, may be null
+     * @return
+     */
+    static <T> RenderDataSource<T> of(Iterator<T> iterator, AutoCloseable onClose) {
+        return new IteratorDataSource<T>(iterator, onClose);
+    }
+
+    /**
+     * the stream is closed after the loop
+     * 
+     * @param stream
+     * @return
+     */
+    static <T> RenderDataSource<T> of(BaseStream<T, ?> stream) {
+        return of(stream.iterator(), stream);
+    }
+
+    static <T> RenderDataSource<T> of(Spliterator<T> spliterator) {
+        return of(Spliterators.iterator(spliterator), null);
+    }
+
+    /**
+     * Source read by pages, such as the paging query of database
+     * 
+     * @param pageSize   the size of page
+     * @param pageLoader load the items from offset of the size, the last page is
+     *                   smaller than the size
+     * @return
+     */
+    static <T> RenderDataSource<T> paging(int pageSize, BiFunction<Integer, Integer, List<T>> pageLoader) {
+        return new PagingDataSource<T>(pageSize, pageLoader);
+    }
+
+    /**
+     * @param data
+     * @return true if the data is {@link Iterable}, {@link BaseStream},
+     *         {@link Spliterator} or {@link RenderDataSource}
+     */
+    static boolean isSource(Object data) {
+        return data instanceof Iterable || data instanceof BaseStream || data instanceof Spliterator
+                || data instanceof RenderDataSource;
+    }
+
+    /**
+     * The source of loop data
+     * 
+     * @param data {@link #isSource(Object)}
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    static RenderDataSource<Object> from(Object data) {
+        if (data instanceof RenderDataSource) return (RenderDataSource<Object>) data;
+        if (data instanceof BaseStream) return of((BaseStream<Object, ?>) data);
+        if (data instanceof Spliterator) return of((Spliterator<Object>) data);
+        if (data instanceof Iterable) {
+            return of(((Iterable<Object>) data).iterator(), data instanceof AutoCloseable ? (AutoCloseable) data : null);
+        }
+        throw new IllegalArgumentException("The data is not a source of loop: " + data);
+    }
+
+}
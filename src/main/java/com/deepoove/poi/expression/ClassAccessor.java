@@ -0,0 +1,204 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.expression;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.deepoove.poi.exception.ExpressionEvalException;
+
+/**
+ * Accessors of the properties of one class, the read methods are introspected
+ * once per class and the accessor of each key is built once, including the
+ * keys which can't be found.
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+class ClassAccessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassAccessor.class);
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<ClassAccessor> ACCESSORS = new ClassValue<ClassAccessor>() {
+        @Override
+        protected ClassAccessor computeValue(Class<?> type) {
+            return new ClassAccessor(type);
+        }
+    };
+
+    private final Class<?> clazz;
+    private final Map<String, Method> readMethods;
+    private final Map<String, Method> getters;
+    private final Map<String, PropertyAccessor> accessors = new ConcurrentHashMap<String, PropertyAccessor>(16);
+
+    private ClassAccessor(Class<?> clazz) {
+        this.clazz = clazz;
+        this.readMethods = introspect(clazz);
+        this.getters = findGetters(clazz);
+    }
+
+    static ClassAccessor of(Class<?> clazz) {
+        return ACCESSORS.get(clazz);
+    }
+
+    PropertyAccessor find(String key) {
+        PropertyAccessor accessor = accessors.get(key);
+        if (null == accessor) {
+            accessor = accessors.computeIfAbsent(key, this::createAccessor);
+        }
+        return accessor;
+    }
+
+    private PropertyAccessor createAccessor(String key) {
+        MethodHandle getter = null;
+        Method readMethod = readMethods.get(key);
+        if (null == readMethod) readMethod = findReadMethod(key);
+        if (null != readMethod) {
+            try {
+                getter = unreflect(readMethod);
+            } catch (Exception e) {
+                logger.info("Introspector {} fail: {}", key, e.getMessage());
+            }
+        }
+        MethodHandle fieldGetter = null;
+        Field field = FieldFinder.find(clazz, key);
+        if (null != field) {
+            try {
+                fieldGetter = unreflectGetter(field);
+            } catch (Exception e) {
+                logger.warn("Error read the property:" + key + " from " + clazz);
+            }
+        }
+        return new PropertyAccessor(clazz, key, getter, fieldGetter);
+    }
+
+    private static Map<String, Method> introspect(Class<?> clazz) {
+        try {
+            BeanInfo beanInfo = Introspector.getBeanInfo(clazz);
+            Map<String, Method> methods = new HashMap<String, Method>();
+            for (PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+                Method readMethod = descriptor.getReadMethod();
+                if (null != readMethod && !isObjectMethod(readMethod)) {
+                    methods.put(descriptor.getName(), readMethod);
+                }
+            }
+            return methods;
+        } catch (IntrospectionException e) {
+            logger.debug("Fail introspector the class: {}, {}", clazz, e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * the read method of the key as it is capitalized, e.g. getName for the key
+     * Name, getXIndex for the key xIndex
+     */
+    private Method findReadMethod(String key) {
+        if (key.isEmpty()) return null;
+        String name = StringUtils.capitalize(key);
+        Method method = getters.get("is" + name);
+        if (null != method && boolean.class == method.getReturnType()) return method;
+        return getters.get("get" + name);
+    }
+
+    private static Map<String, Method> findGetters(Class<?> clazz) {
+        Map<String, Method> methods = new HashMap<String, Method>();
+        for (Method method : clazz.getMethods()) {
+            if (0 != method.getParameterCount() || void.class == method.getReturnType() || method.isBridge()
+                    || Modifier.isStatic(method.getModifiers()) || isObjectMethod(method)) {
+                continue;
+            }
+            methods.putIfAbsent(method.getName(), method);
+        }
+        return methods;
+    }
+
+    /**
+     * getClass is not a property
+     */
+    private static boolean isObjectMethod(Method method) {
+        return Object.class == method.getDeclaringClass();
+    }
+
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) method.setAccessible(true);
+        return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+    }
+
+    private static MethodHandle unreflectGetter(Field field) throws IllegalAccessException {
+        MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+        if (Modifier.isStatic(field.getModifiers())) {
+            return MethodHandles.dropArguments(handle.asType(MethodType.methodType(Object.class)), 0, Object.class);
+        }
+        return handle.asType(GETTER_TYPE);
+    }
+
+    /**
+     * Read one property by the read method, then by the field
+     */
+    static class PropertyAccessor {
+
+        private final Class<?> clazz;
+        private final String key;
+        private final MethodHandle getter;
+        private final MethodHandle fieldGetter;
+
+        PropertyAccessor(Class<?> clazz, String key, MethodHandle getter, MethodHandle fieldGetter) {
+            this.clazz = clazz;
+            this.key = key;
+            this.getter = getter;
+            this.fieldGetter = fieldGetter;
+        }
+
+        Object get(Object obj) {
+            if (null != getter) {
+                try {
+                    return (Object) getter.invokeExact(obj);
+                } catch (Throwable e) {
+                    logger.info("Introspector {} fail: {}", key, e.getMessage());
+                }
+            }
+            if (null == fieldGetter) {
+                throw new ExpressionEvalException("Cannot find property " + key + " from " + clazz);
+            }
+            try {
+                return (Object) fieldGetter.invokeExact(obj);
+            } catch (Throwable e) {
+                throw new ExpressionEvalException("Error read the property:" + key + " from " + clazz);
+            }
+        }
+
+    }
+
+}
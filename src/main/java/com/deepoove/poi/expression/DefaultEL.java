@@ -27,7 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DefaultEL {
 
-    final Object model;
+    Object model;
 
     final Map<String, Object> cache = new ConcurrentHashMap<String, Object>(32);
 
@@ -42,11 +42,40 @@ public class DefaultEL {
         return new DefaultEL(model);
     }
 
+    /**
+     * eval the expressions of another model, the cache is cleared
+     * 
+     * @param model
+     */
+    public void reset(Object model) {
+        this.model = model;
+        this.cache.clear();
+    }
+
+    /**
+     * Set the maximum number of classes whose fields are cached, shared by all
+     * the templates. The default value is 256, or the system property
+     * poitl.el.fieldCacheSize.
+     * 
+     * @param maximumSize
+     */
+    public static void setFieldCacheSize(int maximumSize) {
+        FieldFinder.setMaximumSize(maximumSize);
+    }
+
+    public static int getFieldCacheSize() {
+        return FieldFinder.getMaximumSize();
+    }
+
+    public Object getModel() {
+        return model;
+    }
+
     public Object eval(String el) {
         if (THIS.equals(el)) {
             return model;
         }
-        Dot dot = new Dot(el);
+        Dot dot = Dot.of(el);
         return dot.eval(this);
     }
 
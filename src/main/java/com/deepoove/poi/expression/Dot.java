@@ -15,16 +15,13 @@
  */
 package com.deepoove.poi.expression;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import com.deepoove.poi.exception.ExpressionEvalException;
 
 /**
@@ -34,7 +31,13 @@ import com.deepoove.poi.exception.ExpressionEvalException;
  *
  */
 public class Dot {
-    private Logger logger = LoggerFactory.getLogger(Dot.class);
+    /**
+     * the maximum number of cached expressions, the extra expressions are
+     * evicted one by one
+     */
+    static final int MAXIMUM_CACHE_SIZE = 4096;
+
+    private static final Map<String, Dot> CACHE = new ConcurrentHashMap<String, Dot>(64);
 
     private String el;
     private Dot target;
@@ -43,8 +46,12 @@ public class Dot {
     final static Pattern EL_PATTERN = Pattern.compile("^[^\\.]+(\\.[^\\.]+)*$");
 
     public Dot(String el) {
+        this(el, true);
+    }
+
+    private Dot(String el, boolean validate) {
         Objects.requireNonNull(el, "EL cannot be null.");
-        if (!EL_PATTERN.matcher(el).matches()) {
+        if (validate && !EL_PATTERN.matcher(el).matches()) {
             throw new ExpressionEvalException("Error EL fomart: " + el);
         }
 
@@ -54,13 +61,46 @@ public class Dot {
             this.key = el;
         } else {
             this.key = el.substring(dotIndex + 1);
-            this.target = new Dot(el.substring(0, dotIndex));
+            // the prefix of a valid el is valid
+            this.target = of(el.substring(0, dotIndex), false);
+        }
+    }
+
+    /**
+     * Get the compiled expression from the process-wide cache, the expressions
+     * share their targets
+     * 
+     * @param el
+     * @return
+     */
+    public static Dot of(String el) {
+        return of(el, true);
+    }
+
+    private static Dot of(String el, boolean validate) {
+        Objects.requireNonNull(el, "EL cannot be null.");
+        Dot dot = CACHE.get(el);
+        if (null != dot) return dot;
+        dot = new Dot(el, validate);
+        Dot previous = CACHE.putIfAbsent(el, dot);
+        if (null != previous) return previous;
+        trim(el);
+        return dot;
+    }
+
+    private static void trim(String retained) {
+        // evicted expressions are compiled again on demand, the order of eviction doesn't matter
+        Iterator<String> iterator = CACHE.keySet().iterator();
+        while (CACHE.size() > MAXIMUM_CACHE_SIZE && iterator.hasNext()) {
+            if (!retained.equals(iterator.next())) iterator.remove();
         }
     }
 
     public Object eval(DefaultEL elObject) {
-        if (elObject.cache.containsKey(el)) return elObject.cache.get(el);
-        Object result = null != target ? result = evalKey(target.eval(elObject)) : evalKey(elObject.model);
+        // null is never cached
+        Object result = elObject.cache.get(el);
+        if (null != result) return result;
+        result = null != target ? evalKey(target.eval(elObject)) : evalKey(elObject.model);
         if (null != result) elObject.cache.put(el, result);
         return result;
     }
@@ -70,8 +110,7 @@ public class Dot {
             throw new ExpressionEvalException("Error eval " + key + ", the value of " + target + " is null");
         }
         final Class<?> objClass = obj.getClass();
-        if (obj instanceof String || obj instanceof Number || obj instanceof java.util.Date || obj instanceof Collection
-                || obj instanceof Boolean || objClass.isArray() || objClass.isPrimitive()) {
+        if (!isHash(objClass)) {
             throw new ExpressionEvalException(
                     "Error eval " + key + ", the type of " + target + "must be Hash, but is " + objClass);
         }
@@ -80,27 +119,16 @@ public class Dot {
             return ((Map<?, ?>) obj).get(key);
         }
 
-        // introspector
-        Method readMethod = ReadMethodFinder.find(objClass, key);
-        if (null != readMethod) {
-            try {
-                return readMethod.invoke(obj);
-            } catch (Exception e) {
-                logger.info("Introspector {} fail: {}", key, e.getMessage());
-            }
-        }
+        return ClassAccessor.of(objClass).find(key).get(obj);
+    }
 
-        // reflect
-        Field field = FieldFinder.find(objClass, key);
-        if (null == field) {
-            throw new ExpressionEvalException("Cannot find property " + key + " from " + objClass);
-        } else {
-            try {
-                return field.get(obj);
-            } catch (Exception e) {
-                throw new ExpressionEvalException("Error read the property:" + key + " from " + objClass);
-            }
-        }
+    /**
+     * whether the keys can be read from the objects of the class
+     */
+    static boolean isHash(Class<?> clazz) {
+        return !(String.class == clazz || Number.class.isAssignableFrom(clazz)
+                || java.util.Date.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz)
+                || Boolean.class == clazz || clazz.isArray() || clazz.isPrimitive());
     }
 
     public String getEl() {
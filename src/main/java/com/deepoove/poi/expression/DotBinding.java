@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.deepoove.poi.expression.ClassAccessor.PropertyAccessor;
+
+/**
+ * Accessor chain of a dot expression specialised to the classes it is
+ * evaluated on.
+ * 
+ * <p>
+ * The first evaluation records the class of each object along the chain with
+ * its property accessor, the following evaluations call the accessors directly
+ * as long as the classes are the same. Any other class or a null intermediate
+ * value falls back to {@link Dot}, a key which cannot be read throws the same
+ * {@link com.deepoove.poi.exception.ExpressionEvalException} as {@link Dot}
+ * does, so the result and the errors are the same as
+ * {@link DefaultEL#eval(String)}.
+ * </p>
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+public final class DotBinding {
+
+    private final Dot dot;
+    private final String[] keys;
+    private volatile Step[] steps;
+
+    private DotBinding(Dot dot) {
+        this.dot = dot;
+        List<String> path = new ArrayList<String>();
+        for (Dot node = dot; null != node; node = node.getTarget()) {
+            path.add(node.getKey());
+        }
+        Collections.reverse(path);
+        this.keys = path.toArray(new String[0]);
+    }
+
+    /**
+     * Create the binding of the expression
+     * 
+     * @param el
+     * @return
+     * @throws com.deepoove.poi.exception.ExpressionEvalException if the el is
+     *                                                            invalid
+     */
+    public static DotBinding of(String el) {
+        return new DotBinding(Dot.of(el));
+    }
+
+    public Object eval(DefaultEL elObject) {
+        Step[] steps = this.steps;
+        if (null == steps) return bind(elObject);
+        Object obj = elObject.model;
+        for (Step step : steps) {
+            if (null == obj || obj.getClass() != step.type) return dot.eval(elObject);
+            obj = step.read(obj);
+        }
+        return obj;
+    }
+
+    private Object bind(DefaultEL elObject) {
+        Step[] steps = new Step[keys.length];
+        Object obj = elObject.model;
+        for (int i = 0; i < keys.length; i++) {
+            if (null == obj) return dot.eval(elObject);
+            Step step = Step.of(obj.getClass(), keys[i]);
+            if (null == step) return dot.eval(elObject);
+            obj = step.read(obj);
+            steps[i] = step;
+        }
+        this.steps = steps;
+        return obj;
+    }
+
+    /**
+     * Whether the accessor chain is recorded
+     * 
+     * @return
+     */
+    public boolean isBound() {
+        return null != steps;
+    }
+
+    public String getEl() {
+        return dot.getEl();
+    }
+
+    @Override
+    public String toString() {
+        return dot.getEl();
+    }
+
+    /**
+     * read one key from the objects of one class
+     */
+    private static class Step {
+
+        final Class<?> type;
+        final String key;
+        final PropertyAccessor accessor;
+
+        private Step(Class<?> type, String key, PropertyAccessor accessor) {
+            this.type = type;
+            this.key = key;
+            this.accessor = accessor;
+        }
+
+        static Step of(Class<?> type, String key) {
+            if (!Dot.isHash(type)) return null;
+            if (Map.class.isAssignableFrom(type)) return new Step(type, key, null);
+            return new Step(type, key, ClassAccessor.of(type).find(key));
+        }
+
+        Object read(Object obj) {
+            return null == accessor ? ((Map<?, ?>) obj).get(key) : accessor.get(obj);
+        }
+
+    }
+
+}
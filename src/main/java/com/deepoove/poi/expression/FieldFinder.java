@@ -16,13 +16,21 @@
 package com.deepoove.poi.expression;
 
 import java.lang.reflect.Field;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.deepoove.poi.util.Preconditions;
+
 /**
  * Find field based on field name or annotation @Name
+ * <p>
+ * The declared fields of classes are cached in a concurrent map bounded by
+ * {@link #MAXIMUM_SIZE_PROPERTY}, or {@link DefaultEL#setFieldCacheSize(int)}
+ * </p>
  * 
  * @author Sayi
  *
@@ -30,31 +38,58 @@ import org.slf4j.LoggerFactory;
 class FieldFinder {
     private static Logger logger = LoggerFactory.getLogger(FieldFinder.class);
 
-    private static LinkedHashMap<Class<?>, Field[]> cache = new LinkedHashMap<Class<?>, Field[]>(32, 0.75f, true) {
+    /**
+     * system property of the maximum number of classes whose fields are cached
+     */
+    static final String MAXIMUM_SIZE_PROPERTY = "poitl.el.fieldCacheSize";
+
+    static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private static volatile int maximumSize = Math.max(1,
+            Integer.getInteger(MAXIMUM_SIZE_PROPERTY, DEFAULT_MAXIMUM_SIZE));
 
-        private static final long serialVersionUID = -4306886008010847817L;
+    private static final Map<Class<?>, Field[]> cache = new ConcurrentHashMap<Class<?>, Field[]>(64);
+
+    static void setMaximumSize(int size) {
+        Preconditions.requireGreaterThan(size, 0, "The maximum size of field cache must be greater than 0.");
+        maximumSize = size;
+        trim();
+    }
 
-        @Override
-        protected boolean removeEldestEntry(java.util.Map.Entry<java.lang.Class<?>, Field[]> eldest) {
-            // TODO The maximum number can be adjusted. If it is a business originating from
-            // a large number of entities, this value should be increased to optimize
-            // performance
-            return size() > 20;
-        };
-    };
+    static int getMaximumSize() {
+        return maximumSize;
+    }
+
+    static Field[] getDeclaredFields(Class<?> clazz) {
+        Field[] fields = cache.get(clazz);
+        if (null != fields) return fields;
+        fields = clazz.getDeclaredFields();
+        Field[] previous = cache.putIfAbsent(clazz, fields);
+        if (null != previous) return previous;
+        trim();
+        return fields;
+    }
+
+    private static void trim() {
+        // evicted classes are read again on demand, the order of eviction doesn't matter
+        Iterator<Class<?>> iterator = cache.keySet().iterator();
+        while (cache.size() > maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
 
     static Field find(Class<?> objClass, String key) {
         Class<?> clazz = objClass;
-        Field field = null;
-        while (clazz != Object.class) {
-            try {
-                field = findInClazz(clazz, key);
-                field.setAccessible(true);
-                return field;
-            } catch (NoSuchFieldException e) {
-                // do nothing, go to super class
-            } catch (Exception e) {
-                logger.warn("Error read the property:" + key + " from " + objClass);
+        while (null != clazz && clazz != Object.class) {
+            Field field = findInClazz(clazz, key);
+            if (null != field) {
+                try {
+                    field.setAccessible(true);
+                    return field;
+                } catch (Exception e) {
+                    logger.warn("Error read the property:" + key + " from " + objClass);
+                }
             }
             clazz = clazz.getSuperclass();
         }
@@ -62,18 +97,10 @@ class FieldFinder {
 
     }
 
-    static Field findInClazz(Class<?> clazz, String key) throws NoSuchFieldException {
-        Field field = null;
-        try {
-            field = clazz.getDeclaredField(key);
-            return field;
-        } catch (Exception e) {
-        }
-
-        Field[] fields = cache.get(clazz);
-        if (null == fields) {
-            fields = clazz.getDeclaredFields();
-            cache.put(clazz, fields);
+    static Field findInClazz(Class<?> clazz, String key) {
+        Field[] fields = getDeclaredFields(clazz);
+        for (Field f : fields) {
+            if (key.equals(f.getName())) return f;
         }
         for (Field f : fields) {
             Name annotation = f.getAnnotation(Name.class);
@@ -81,7 +108,7 @@ class FieldFinder {
                 return f;
             }
         }
-        throw new NoSuchFieldException(key);
+        return null;
     }
 
 }
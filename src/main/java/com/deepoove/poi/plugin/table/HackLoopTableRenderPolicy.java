@@ -15,26 +15,32 @@
  */
 package com.deepoove.poi.plugin.table;
 
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.poi.xwpf.usermodel.IBodyElement;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.apache.xmlbeans.XmlCursor;
-import org.apache.xmlbeans.XmlObject;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTVMerge;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.data.RenderDataSource;
 import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.exception.ResolverException;
 import com.deepoove.poi.policy.RenderPolicy;
+import com.deepoove.poi.render.compute.EnvModel;
 import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.render.compute.ResettableRenderDataCompute;
 import com.deepoove.poi.render.processor.DocumentProcessor;
+import com.deepoove.poi.resolver.TemplateIndex;
 import com.deepoove.poi.resolver.TemplateResolver;
 import com.deepoove.poi.template.ElementTemplate;
 import com.deepoove.poi.template.MetaTemplate;
@@ -86,46 +92,53 @@ public class HackLoopTableRenderPolicy implements RenderPolicy {
             run.setText("", 0);
 
             int templateRowIndex = getTemplateRowIndex(tagCell);
-            if (null != data && data instanceof Iterable) {
-                Iterator<?> iterator = ((Iterable<?>) data).iterator();
-                XWPFTableRow templateRow = table.getRow(templateRowIndex);
-                int insertPosition = templateRowIndex;
-
-                TemplateResolver resolver = new TemplateResolver(template.getConfig().copy(prefix, suffix));
-                boolean firstFlag = true;
-                while (iterator.hasNext()) {
-                    insertPosition = templateRowIndex++;
-                    XWPFTableRow nextRow = table.insertNewTableRow(insertPosition);
-                    setTableRow(table, templateRow, insertPosition);
-
-                    // double set row
-                    XmlCursor newCursor = templateRow.getCtRow().newCursor();
-                    newCursor.toPrevSibling();
-                    XmlObject object = newCursor.getObject();
-                    nextRow = new XWPFTableRow((CTRow) object, table);
-                    if (!firstFlag) {
-                        // update VMerge cells for non-first row
-                        List<XWPFTableCell> tableCells = nextRow.getTableCells();
-                        for (XWPFTableCell cell : tableCells) {
-                            CTTcPr tcPr = TableTools.getTcPr(cell);
-                            CTVMerge vMerge = tcPr.getVMerge();
-                            if (null == vMerge) continue;
-                            if (STMerge.RESTART == vMerge.getVal()) {
-                                vMerge.setVal(STMerge.CONTINUE);
+            if (RenderDataSource.isSource(data)) {
+                try (RenderDataSource<Object> iterator = RenderDataSource.from(data)) {
+                    XWPFTableRow templateRow = table.getRow(templateRowIndex);
+                    int insertPosition = templateRowIndex;
+
+                    // the config may be changed between renders, copy it each time
+                    Configure rowConfig = template.getConfig().copy(prefix, suffix);
+                    TemplateResolver resolver = new TemplateResolver(rowConfig);
+                    // the tags of template row are located once, the copies have the same layout
+                    TemplateIndex[] cellIndexes = indexRow(templateRow, resolver, rowConfig);
+                    List<XWPFTableRow> rows = getTableRows(table);
+                    XmlCursor templateCursor = templateRow.getCtRow().newCursor();
+                    RowProcessor processor = new RowProcessor(template, resolver);
+                    boolean firstFlag = true;
+                    while (iterator.hasNext()) {
+                        insertPosition = templateRowIndex++;
+                        // copy the template row in front of it
+                        XmlCursor from = templateRow.getCtRow().newCursor();
+                        from.copyXml(templateCursor);
+                        from.dispose();
+                        templateCursor.toPrevSibling();
+                        XWPFTableRow nextRow = new XWPFTableRow((CTRow) templateCursor.getObject(), table);
+                        templateCursor.toNextSibling();
+                        if (!firstFlag) {
+                            // update VMerge cells for non-first row
+                            List<XWPFTableCell> tableCells = nextRow.getTableCells();
+                            for (XWPFTableCell cell : tableCells) {
+                                CTTcPr tcPr = TableTools.getTcPr(cell);
+                                CTVMerge vMerge = tcPr.getVMerge();
+                                if (null == vMerge) continue;
+                                if (STMerge.RESTART == vMerge.getVal()) {
+                                    vMerge.setVal(STMerge.CONTINUE);
+                                }
                             }
+                        } else {
+                            firstFlag = false;
                         }
-                    } else {
-                        firstFlag = false;
+                        rows.add(insertPosition, nextRow);
+
+                        List<MetaTemplate> templates = new ArrayList<MetaTemplate>();
+                        List<XWPFTableCell> cells = nextRow.getTableCells();
+                        for (int i = 0; i < cells.size(); i++) {
+                            templates.addAll(resolveCell(resolver, cells.get(i), cellIndexes, i));
+                        }
+                        processor.process(templates, iterator.next());
                     }
-                    setTableRow(table, nextRow, insertPosition);
-
-                    RenderDataCompute dataCompute = template.getConfig().getRenderDataComputeFactory()
-                            .newCompute(iterator.next());
-                    List<XWPFTableCell> cells = nextRow.getTableCells();
-                    cells.forEach(cell -> {
-                        List<MetaTemplate> templates = resolver.resolveBodyElements(cell.getBodyElements());
-                        new DocumentProcessor(template, resolver, dataCompute).process(templates);
-                    });
+                    templateCursor.dispose();
                 }
             }
 
@@ -136,6 +149,34 @@ public class HackLoopTableRenderPolicy implements RenderPolicy {
         }
     }
 
+    private TemplateIndex[] indexRow(XWPFTableRow templateRow, TemplateResolver resolver, Configure rowConfig) {
+        List<XWPFTableCell> cells = templateRow.getTableCells();
+        TemplateIndex[] cellIndexes = new TemplateIndex[cells.size()];
+        for (int i = 0; i < cells.size(); i++) {
+            List<IBodyElement> elements = cells.get(i).getBodyElements();
+            try {
+                cellIndexes[i] = TemplateIndex.of(elements, resolver.resolveBodyElements(elements), rowConfig);
+            } catch (ResolverException e) {
+                // resolve the cells of each copy
+                cellIndexes[i] = null;
+            }
+        }
+        return cellIndexes;
+    }
+
+    private List<MetaTemplate> resolveCell(TemplateResolver resolver, XWPFTableCell cell,
+            TemplateIndex[] cellIndexes, int i) {
+        List<IBodyElement> elements = cell.getBodyElements();
+        if (i < cellIndexes.length && null != cellIndexes[i]) {
+            try {
+                return resolver.resolveBodyElements(elements, cellIndexes[i]);
+            } catch (ResolverException e) {
+                cellIndexes[i] = null;
+            }
+        }
+        return resolver.resolveBodyElements(elements);
+    }
+
     private int getTemplateRowIndex(XWPFTableCell tagCell) {
         XWPFTableRow tagRow = tagCell.getTableRow();
         return onSameLine ? getRowIndex(tagRow) : (getRowIndex(tagRow) + 1);
@@ -145,10 +186,8 @@ public class HackLoopTableRenderPolicy implements RenderPolicy {
     }
 
     @SuppressWarnings("unchecked")
-    private void setTableRow(XWPFTable table, XWPFTableRow templateRow, int pos) {
-        List<XWPFTableRow> rows = (List<XWPFTableRow>) ReflectionUtils.getValue("tableRows", table);
-        rows.set(pos, templateRow);
-        table.getCTTbl().setTrArray(pos, templateRow.getCtRow());
+    private List<XWPFTableRow> getTableRows(XWPFTable table) {
+        return (List<XWPFTableRow>) ReflectionUtils.getValue("tableRows", table);
     }
 
     private int getRowIndex(XWPFTableRow row) {
@@ -156,4 +195,34 @@ public class HackLoopTableRenderPolicy implements RenderPolicy {
         return rows.indexOf(row);
     }
 
+    /**
+     * Process the rows with one processor if the compute is resettable
+     */
+    private static class RowProcessor {
+        private final XWPFTemplate template;
+        private final TemplateResolver resolver;
+        private ResettableRenderDataCompute dataCompute;
+        private DocumentProcessor processor;
+
+        RowProcessor(XWPFTemplate template, TemplateResolver resolver) {
+            this.template = template;
+            this.resolver = resolver;
+        }
+
+        void process(List<MetaTemplate> templates, Object model) {
+            if (null != dataCompute) {
+                dataCompute.reset(EnvModel.ofModel(model));
+                processor.process(templates);
+                return;
+            }
+            RenderDataCompute compute = template.newRenderDataCompute(model);
+            DocumentProcessor documentProcessor = new DocumentProcessor(template, resolver, compute);
+            if (compute instanceof ResettableRenderDataCompute) {
+                this.dataCompute = (ResettableRenderDataCompute) compute;
+                this.processor = documentProcessor;
+            }
+            documentProcessor.process(templates);
+        }
+    }
+
 }
@@ -15,12 +15,11 @@
  */
 package com.deepoove.poi.plugin.table;
 
+import java.lang.reflect.Field;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
-import org.apache.poi.xwpf.usermodel.IBody;
 import org.apache.poi.xwpf.usermodel.TableWidthType;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
@@ -28,15 +27,14 @@ import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.apache.xmlbeans.XmlCursor;
-import org.apache.xmlbeans.XmlObject;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDecimalNumber;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblGrid;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblGridCol;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.data.RenderDataSource;
 import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.policy.RenderPolicy;
 import com.deepoove.poi.render.compute.RenderDataCompute;
@@ -56,6 +54,8 @@ import com.deepoove.poi.util.TableTools;
  */
 public class LoopColumnTableRenderPolicy implements RenderPolicy {
 
+    private static final Field TABLE_CELLS = ReflectionUtils.findAccessibleField(XWPFTableRow.class, "tableCells");
+
     private String prefix;
     private String suffix;
     private boolean onSameLine;
@@ -92,65 +92,53 @@ public class LoopColumnTableRenderPolicy implements RenderPolicy {
             run.setText("", 0);
 
             int templateColIndex = getTemplateColIndex(tagCell);
-            int actualColIndex = getActualInsertPosition(tagCell.getTableRow(), templateColIndex);
-            XWPFTableCell firstCell = tagCell.getTableRow().getCell(actualColIndex);
+            // the cell of template column in each row, kept up to date while the copies are inserted
+            List<ColumnSlot> slots = new ArrayList<ColumnSlot>();
+            for (XWPFTableRow row : table.getRows()) {
+                slots.add(new ColumnSlot(row, templateColIndex));
+            }
+            ColumnSlot tagSlot = slots.get(table.getRows().indexOf(tagCell.getTableRow()));
+            if (-1 == tagSlot.cellIndex) {
+                throw new IllegalArgumentException("template col must not span multiple grid columns.");
+            }
+            XWPFTableCell firstCell = tagSlot.cells.get(tagSlot.cellIndex);
             int width = firstCell.getWidth();
             TableWidthType widthType = firstCell.getWidthType();
             if (TableWidthType.DXA != widthType || width == 0) {
                 throw new IllegalArgumentException("template col must set width in centimeters.");
             }
 
-            int rowSize = table.getRows().size();
-            if (null != data && data instanceof Iterable) {
-                int colWidth = processLoopColWidth(table, width, templateColIndex, data);
-
-                Iterator<?> iterator = ((Iterable<?>) data).iterator();
-                int insertPosition = templateColIndex;
-
+            if (RenderDataSource.isSource(data)) {
+                // the columns are inserted while reading the data, the width
+                // depends on the size and is set after the loop
+                List<XWPFTableCell> inserted = new ArrayList<XWPFTableCell>();
+                int size = 0;
                 TemplateResolver resolver = new TemplateResolver(template.getConfig().copy(prefix, suffix));
-                while (iterator.hasNext()) {
-                    insertPosition = templateColIndex++;
-                    List<XWPFTableCell> cells = new ArrayList<XWPFTableCell>();
-
-                    for (int i = 0; i < rowSize; i++) {
-                        XWPFTableRow row = table.getRow(i);
-                        int actualInsertPosition = getActualInsertPosition(row, insertPosition);
-                        if (-1 == actualInsertPosition) {
-                            addColGridSpan(row, insertPosition);
-                            continue;
+                try (RenderDataSource<Object> source = RenderDataSource.from(data)) {
+                    while (source.hasNext()) {
+                        List<XWPFTableCell> cells = new ArrayList<XWPFTableCell>();
+                        for (ColumnSlot slot : slots) {
+                            XWPFTableCell nextCell = slot.insertCopy();
+                            if (null != nextCell) cells.add(nextCell);
                         }
-                        XWPFTableCell templateCell = row.getCell(actualInsertPosition);
-                        templateCell.setWidth(colWidth + "");
-                        XWPFTableCell nextCell = insertCell(row, actualInsertPosition);
-                        setTableCell(row, templateCell, actualInsertPosition);
-
-                        // double set row
-                        XmlCursor newCursor = templateCell.getCTTc().newCursor();
-                        newCursor.toPrevSibling();
-                        XmlObject object = newCursor.getObject();
-                        nextCell = new XWPFTableCell((CTTc) object, row, (IBody) nextCell.getPart());
-                        setTableCell(row, nextCell, actualInsertPosition);
-
-                        cells.add(nextCell);
+                        inserted.addAll(cells);
+                        size++;
+
+                        RenderDataCompute dataCompute = template.newRenderDataCompute(source.next());
+                        cells.forEach(cell -> {
+                            List<MetaTemplate> templates = resolver.resolveBodyElements(cell.getBodyElements());
+                            new DocumentProcessor(template, resolver, dataCompute).process(templates);
+                        });
                     }
-
-                    RenderDataCompute dataCompute = template.getConfig().getRenderDataComputeFactory()
-                            .newCompute(iterator.next());
-                    cells.forEach(cell -> {
-                        List<MetaTemplate> templates = resolver.resolveBodyElements(cell.getBodyElements());
-                        new DocumentProcessor(template, resolver, dataCompute).process(templates);
-                    });
+                }
+                int colWidth = processLoopColWidth(table, width, templateColIndex, size);
+                for (XWPFTableCell cell : inserted) {
+                    cell.setWidth(colWidth + "");
                 }
             }
 
-            for (int i = 0; i < rowSize; i++) {
-                XWPFTableRow row = table.getRow(i);
-                int actualInsertPosition = getActualInsertPosition(row, templateColIndex);
-                if (-1 == actualInsertPosition) {
-                    minusGridSpan(row, templateColIndex);
-                    continue;
-                }
-                removeCell(row, actualInsertPosition);
+            for (ColumnSlot slot : slots) {
+                slot.removeTemplate();
             }
             afterloop(table, data);
         } catch (Exception e) {
@@ -162,23 +150,8 @@ public class LoopColumnTableRenderPolicy implements RenderPolicy {
         return onSameLine ? getColIndex(tagCell) : (getColIndex(tagCell) + 1);
     }
 
-    private void minusGridSpan(XWPFTableRow row, int templateColIndex) {
-        XWPFTableCell actualCell = getActualCell(row, templateColIndex);
-        CTTcPr tcPr = actualCell.getCTTc().getTcPr();
-        CTDecimalNumber gridSpan = tcPr.getGridSpan();
-        gridSpan.setVal(BigInteger.valueOf(gridSpan.getVal().longValue() - 1));
-    }
-
-    private void addColGridSpan(XWPFTableRow row, int insertPosition) {
-        XWPFTableCell actualCell = getActualCell(row, insertPosition);
-        CTTcPr tcPr = actualCell.getCTTc().getTcPr();
-        CTDecimalNumber gridSpan = tcPr.getGridSpan();
-        gridSpan.setVal(BigInteger.valueOf(gridSpan.getVal().longValue() + 1));
-    }
-
-    private int processLoopColWidth(XWPFTable table, int width, int templateColIndex, Object data) {
+    private int processLoopColWidth(XWPFTable table, int width, int templateColIndex, int dataSize) {
         CTTblGrid tblGrid = TableTools.getTblGrid(table);
-        int dataSize = getSize((Iterable<?>) data);
         int colWidth = width / dataSize;
         // int colWidth = width;
         for (int j = 0; j < dataSize; j++) {
@@ -189,45 +162,9 @@ public class LoopColumnTableRenderPolicy implements RenderPolicy {
         return colWidth;
     }
 
-    private int getSize(Iterable<?> data) {
-        int size = 0;
-        Iterator<?> iterator = data.iterator();
-        while (iterator.hasNext()) {
-            iterator.next();
-            size++;
-        }
-        return size;
-    }
-
-    @SuppressWarnings("unchecked")
-    private void removeCell(XWPFTableRow row, int actualInsertPosition) {
-        List<XWPFTableCell> cells = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", row);
-        cells.remove(actualInsertPosition);
-        row.getCtRow().removeTc(actualInsertPosition);
-
-    }
-
-    @SuppressWarnings("unchecked")
-    private XWPFTableCell insertCell(XWPFTableRow tableRow, int actualInsertPosition) {
-        CTRow row = tableRow.getCtRow();
-        CTTc newTc = row.insertNewTc(actualInsertPosition);
-        XWPFTableCell cell = new XWPFTableCell(newTc, tableRow, tableRow.getTable().getBody());
-
-        List<XWPFTableCell> cells = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", tableRow);
-        cells.add(actualInsertPosition, cell);
-        return cell;
-    }
-
     protected void afterloop(XWPFTable table, Object data) {
     }
 
-    @SuppressWarnings("unchecked")
-    private void setTableCell(XWPFTableRow row, XWPFTableCell templateCell, int pos) {
-        List<XWPFTableCell> rows = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", row);
-        rows.set(pos, templateCell);
-        row.getCtRow().setTcArray(pos, templateCell.getCTTc());
-    }
-
     private int getColIndex(XWPFTableCell cell) {
         XWPFTableRow tableRow = cell.getTableRow();
         int orginalCol = 0;
@@ -247,40 +184,75 @@ public class LoopColumnTableRenderPolicy implements RenderPolicy {
         return -1;
     }
 
-    private int getActualInsertPosition(XWPFTableRow tableRow, int insertPosition) {
-        int orginalCol = 0;
-        for (int i = 0; i < tableRow.getTableCells().size(); i++) {
-            XWPFTableCell current = tableRow.getCell(i);
-            int intValue = 1;
-            CTTcPr tcPr = current.getCTTc().getTcPr();
-            if (null != tcPr) {
-                CTDecimalNumber gridSpan = tcPr.getGridSpan();
-                if (null != gridSpan) intValue = gridSpan.getVal().intValue();
-            }
-            orginalCol += intValue;
-            if (orginalCol - intValue == insertPosition && intValue == 1) {
-                return i;
-            }
+    private static int getGridSpan(XWPFTableCell cell) {
+        CTTcPr tcPr = cell.getCTTc().getTcPr();
+        if (null != tcPr) {
+            CTDecimalNumber gridSpan = tcPr.getGridSpan();
+            if (null != gridSpan) return gridSpan.getVal().intValue();
         }
-        return -1;
+        return 1;
     }
 
-    private XWPFTableCell getActualCell(XWPFTableRow tableRow, int insertPosition) {
-        int orginalCol = 0;
-        for (int i = 0; i < tableRow.getTableCells().size(); i++) {
-            XWPFTableCell current = tableRow.getCell(i);
-            int intValue = 1;
-            CTTcPr tcPr = current.getCTTc().getTcPr();
-            if (null != tcPr) {
-                CTDecimalNumber gridSpan = tcPr.getGridSpan();
-                if (null != gridSpan) intValue = gridSpan.getVal().intValue();
+    /**
+     * The cell of template column in one row. The copies are always inserted
+     * in front of the template cell, so its position is updated without scanning
+     * the row again.
+     */
+    private static class ColumnSlot {
+        private final XWPFTableRow row;
+        private final List<XWPFTableCell> cells;
+        // index of the template cell, -1 if the template column is covered by a spanning cell
+        private int cellIndex = -1;
+        private XWPFTableCell spanCell;
+        private int spanAdded;
+
+        @SuppressWarnings("unchecked")
+        ColumnSlot(XWPFTableRow row, int templateColIndex) {
+            this.row = row;
+            this.cells = (List<XWPFTableCell>) ReflectionUtils.getValue(TABLE_CELLS, row);
+            int col = 0;
+            for (int i = 0; i < cells.size(); i++) {
+                XWPFTableCell cell = cells.get(i);
+                int span = getGridSpan(cell);
+                if (col == templateColIndex && span == 1) {
+                    cellIndex = i;
+                    return;
+                }
+                col += span;
+                if (col - 1 >= templateColIndex) {
+                    spanCell = cell;
+                    return;
+                }
             }
-            orginalCol += intValue;
-            if (orginalCol - 1 >= insertPosition) {
-                return current;
+        }
+
+        XWPFTableCell insertCopy() {
+            if (-1 == cellIndex) {
+                spanAdded++;
+                return null;
+            }
+            CTTc templateTc = cells.get(cellIndex).getCTTc();
+            XmlCursor templateCursor = templateTc.newCursor();
+            XmlCursor from = templateTc.newCursor();
+            from.copyXml(templateCursor);
+            from.dispose();
+            templateCursor.toPrevSibling();
+            XWPFTableCell nextCell = new XWPFTableCell((CTTc) templateCursor.getObject(), row,
+                    row.getTable().getBody());
+            templateCursor.dispose();
+            cells.add(cellIndex++, nextCell);
+            return nextCell;
+        }
+
+        void removeTemplate() {
+            if (-1 != cellIndex) {
+                cells.remove(cellIndex);
+                row.getCtRow().removeTc(cellIndex);
+            } else if (null != spanCell) {
+                CTDecimalNumber gridSpan = spanCell.getCTTc().getTcPr().getGridSpan();
+                gridSpan.setVal(BigInteger.valueOf(gridSpan.getVal().longValue() + spanAdded - 1));
             }
         }
-        return null;
     }
 
 }
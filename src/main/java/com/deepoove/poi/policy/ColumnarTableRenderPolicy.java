@@ -0,0 +1,199 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.policy;
+
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.apache.xmlbeans.impl.xb.xmlschema.SpaceAttribute;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTText;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STBrType;
+
+import com.deepoove.poi.data.CellRenderData;
+import com.deepoove.poi.data.Cells;
+import com.deepoove.poi.data.ColumnarTableRenderData;
+import com.deepoove.poi.data.ColumnarTableRenderData.Column;
+import com.deepoove.poi.data.RowRenderData;
+import com.deepoove.poi.data.Texts;
+import com.deepoove.poi.data.style.Style;
+import com.deepoove.poi.data.style.TableStyle;
+import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.render.RenderContext;
+import com.deepoove.poi.util.ReflectionUtils;
+import com.deepoove.poi.util.StyleUtils;
+import com.deepoove.poi.xwpf.BodyContainer;
+import com.deepoove.poi.xwpf.BodyContainerFactory;
+
+/**
+ * columnar table render, the styles of data row are rendered once into a
+ * prototype row, then each data row is a copy of the prototype with the text
+ * replaced.
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+public class ColumnarTableRenderPolicy extends AbstractRenderPolicy<ColumnarTableRenderData> {
+
+    @Override
+    protected boolean validate(ColumnarTableRenderData data) {
+        if (null == data || 0 == data.obtainColSize()) return false;
+        final int row = data.obtainRowSize();
+        for (Column column : data.getColumns()) {
+            if (null == column || row != column.size()) {
+                throw new IllegalArgumentException("Number of values in each column should be the same!");
+            }
+        }
+        final int col = data.obtainColSize();
+        if (null != data.getHeader() && col != data.getHeader().obtainColSize()) {
+            throw new IllegalArgumentException("Number of cells in header and columns should be the same!");
+        }
+        TableStyle tableStyle = data.getTableStyle();
+        if (null != tableStyle) {
+            int[] colWidths = tableStyle.getColWidths();
+            if (null != colWidths && colWidths.length != col) {
+                throw new IllegalArgumentException(
+                        "The length of Colwidth array and number of columns must be the same!");
+            }
+        }
+        return 0 != row || null != data.getHeader();
+    }
+
+    @Override
+    public void doRender(RenderContext<ColumnarTableRenderData> context) throws Exception {
+        Helper.renderTable(context.getRun(), context.getData());
+    }
+
+    @Override
+    protected void afterRender(RenderContext<ColumnarTableRenderData> context) {
+        clearPlaceholder(context, true);
+    }
+
+    public static class Helper {
+
+        static final String PLACEHOLDER = "${prototype}";
+
+        public static void renderTable(XWPFRun run, ColumnarTableRenderData data) throws Exception {
+            RowRenderData header = data.getHeader();
+            int headerSize = null == header ? 0 : 1;
+            BodyContainer bodyContainer = BodyContainerFactory.getBodyContainer(run);
+            XWPFTable table = bodyContainer.insertNewTable(run, headerSize + 1, data.obtainColSize());
+            StyleUtils.styleTable(table, data.getTableStyle());
+
+            Style defaultTextStyle = StyleUtils.retriveStyle(run);
+            if (null != header) {
+                TableRenderPolicy.Helper.renderRow(table.getRow(0), header, defaultTextStyle);
+            }
+            XWPFTableRow prototype = table.getRow(headerSize);
+            TableRenderPolicy.Helper.renderRow(prototype, createPrototype(data), defaultTextStyle);
+            List<Column> columns = data.getColumns();
+            writeRows(table, prototype, data.obtainRowSize(), (i, j) -> columns.get(j).getText(i));
+            table.removeRow(headerSize);
+        }
+
+        /**
+         * Append rows which are copies of the prototype row, the placeholder
+         * text of each cell is replaced by the value of column, the lines of
+         * value are separated by text wrapping breaks
+         * 
+         * @param table
+         * @param prototype rendered row whose cells contain the placeholder text
+         * @param rowSize
+         * @param texts     text of cell
+         */
+        @SuppressWarnings("unchecked")
+        static void writeRows(XWPFTable table, XWPFTableRow prototype, int rowSize, CellText texts) {
+            CTRow protoCtRow = prototype.getCtRow();
+            int[][] textPaths = new int[protoCtRow.sizeOfTcArray()][];
+            for (int j = 0; j < textPaths.length; j++) {
+                textPaths[j] = findPlaceholder(protoCtRow.getTcArray(j));
+                if (null == textPaths[j]) {
+                    throw new RenderException("Placeholder of column " + j + " is missing in the prototype row.");
+                }
+            }
+
+            CTTbl ctTbl = table.getCTTbl();
+            List<XWPFTableRow> rows = (List<XWPFTableRow>) ReflectionUtils.getValue("tableRows", table);
+            for (int i = 0; i < rowSize; i++) {
+                CTRow ctRow = ctTbl.addNewTr();
+                ctRow.set(protoCtRow);
+                for (int j = 0; j < textPaths.length; j++) {
+                    int[] path = textPaths[j];
+                    CTR ctr = ctRow.getTcArray(j).getPArray(path[0]).getRArray(path[1]);
+                    writeText(ctr, ctr.getTArray(path[2]), texts.get(i, j));
+                }
+                rows.add(new XWPFTableRow(ctRow, table));
+            }
+        }
+
+        private static void writeText(CTR ctr, CTText text, String value) {
+            if (null == value || value.indexOf('\n') < 0) {
+                text.setStringValue(value);
+                return;
+            }
+            // the placeholder is the only text of run, the lines are appended
+            String[] fragment = value.split(TextRenderPolicy.Helper.REGEX_LINE_CHARACTOR, -1);
+            text.setStringValue(fragment[0]);
+            for (int i = 1; i < fragment.length; i++) {
+                ctr.addNewBr().setType(STBrType.TEXT_WRAPPING);
+                CTText line = ctr.addNewT();
+                line.setSpace(SpaceAttribute.Space.PRESERVE);
+                line.setStringValue(fragment[i]);
+            }
+        }
+
+        interface CellText {
+            String get(int row, int col);
+        }
+
+        private static RowRenderData createPrototype(ColumnarTableRenderData data) {
+            RowRenderData row = new RowRenderData();
+            row.setRowStyle(data.getRowStyle());
+            for (Column column : data.getColumns()) {
+                CellRenderData cell = Cells.of(Texts.of(PLACEHOLDER).style(column.getTextStyle()).create()).create();
+                cell.setCellStyle(column.getCellStyle());
+                row.addCell(cell);
+            }
+            return row;
+        }
+
+        private static int[] findPlaceholder(CTTc tc) {
+            for (int p = 0; p < tc.sizeOfPArray(); p++) {
+                CTP ctp = tc.getPArray(p);
+                for (int r = 0; r < ctp.sizeOfRArray(); r++) {
+                    CTR ctr = ctp.getRArray(r);
+                    for (int t = 0; t < ctr.sizeOfTArray(); t++) {
+                        CTText text = ctr.getTArray(t);
+                        if (PLACEHOLDER.equals(text.getStringValue())) {
+                            // keep the leading and trailing spaces of values
+                            text.setSpace(SpaceAttribute.Space.PRESERVE);
+                            return new int[] { p, r, t };
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+    }
+
+}
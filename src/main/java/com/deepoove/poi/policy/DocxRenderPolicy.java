@@ -17,17 +17,27 @@ package com.deepoove.poi.policy;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.collections4.CollectionUtils;
 
+import com.deepoove.poi.TemplateBlueprint;
+import com.deepoove.poi.TemplateCache;
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure;
 import com.deepoove.poi.data.DocxRenderData;
 import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.render.RenderContext;
+import com.deepoove.poi.util.PoitlIOUtils;
 import com.deepoove.poi.xwpf.NiceXWPFDocument;
 
 /**
@@ -37,6 +47,43 @@ import com.deepoove.poi.xwpf.NiceXWPFDocument;
  */
 public class DocxRenderPolicy extends AbstractRenderPolicy<DocxRenderData> {
 
+    private static final int DEFAULT_MAXIMUM_SIZE = 16;
+    private static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+    private static final int MAXIMUM_CONFIGS = 8;
+
+    private final int maximumSize;
+    private final long maximumWeight;
+    // the caches reference their configs, weak keys would never be cleared
+    private final Map<Configure, TemplateCache> caches = new LinkedHashMap<Configure, TemplateCache>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Configure, TemplateCache> eldest) {
+            return size() > MAXIMUM_CONFIGS;
+        }
+    };
+
+    public DocxRenderPolicy() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_WEIGHT);
+    }
+
+    /**
+     * The sub templates are compiled once and shared across renders, keyed by
+     * the SHA-256 of the content. Each config has its own cache, the caches of
+     * the {@value #MAXIMUM_CONFIGS} least recently used configs are kept
+     * 
+     * @param maximumSize   the maximum number of compiled sub templates
+     * @param maximumWeight the maximum total size of compiled sub templates in
+     *                      bytes
+     */
+    public DocxRenderPolicy(int maximumSize, long maximumWeight) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("maximumSize must be greater than 0");
+        if (maximumWeight <= 0) throw new IllegalArgumentException("maximumWeight must be greater than 0");
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+    }
+
     @Override
     protected boolean validate(DocxRenderData data) {
         return null != data && null != data.getMergedDoc();
@@ -50,9 +97,24 @@ public class DocxRenderPolicy extends AbstractRenderPolicy<DocxRenderData> {
     @Override
     public void doRender(RenderContext<DocxRenderData> context) throws Exception {
         NiceXWPFDocument doc = context.getXWPFDocument();
-        XWPFTemplate template = context.getTemplate();
-        doc = doc.merge(new XWPFDocumentIterator(context.getData(), context.getConfig()), context.getRun());
-        template.reload(doc);
+        // the document is rebuilt once after all includes
+        Configure config = context.getConfig();
+        Executor executor = context.getMergeExecutor();
+        int parallelism = config.getMergeParallelism();
+        doc.mergeInPlace(new XWPFDocumentIterator(context.getData(), config, executor, parallelism),
+                context.getRun(), executor, parallelism);
+    }
+
+    /**
+     * The cache of compiled sub templates of the config
+     * 
+     * @param config
+     * @return
+     */
+    public TemplateCache getTemplateCache(Configure config) {
+        synchronized (caches) {
+            return caches.computeIfAbsent(config, k -> new TemplateCache(k, maximumSize, maximumWeight));
+        }
     }
 
     // use iterator to retrieve XWPFTemplate objects, for gc
@@ -62,13 +124,20 @@ public class DocxRenderPolicy extends AbstractRenderPolicy<DocxRenderData> {
         private byte[] bytes;
         private List<?> datas;
         private int length;
+        private TemplateBlueprint blueprint;
+        private Executor executor;
+        private int parallelism;
+        private Deque<CompletableFuture<NiceXWPFDocument>> futures;
+        private int submitted;
 
         int cursor = 0;
 
-        XWPFDocumentIterator(DocxRenderData data, Configure config) {
+        XWPFDocumentIterator(DocxRenderData data, Configure config, Executor executor, int parallelism) {
             this.bytes = data.getMergedDoc();
             this.datas = data.getDataModels();
             this.config = config;
+            this.executor = executor;
+            this.parallelism = parallelism;
             this.length = null == this.datas ? 1 : this.datas.size();
         }
 
@@ -88,12 +157,38 @@ public class DocxRenderPolicy extends AbstractRenderPolicy<DocxRenderData> {
                     throw new RenderException("Create XWPFDocument error", e);
                 }
             } else {
-                // TODO performance, should compile template only once?
-                XWPFTemplate temp = XWPFTemplate.compile(new ByteArrayInputStream(bytes), config);
-                temp.render(datas.get(cursor++));
-                return temp.getXWPFDocument();
+                // compile once, each item renders a copy of the compiled template
+                if (null == blueprint) blueprint = getTemplateCache(config).get(bytes);
+                if (null == executor) return render(datas.get(cursor++));
+                // render at most parallelism items ahead, the documents are
+                // retrieved in order
+                if (null == futures) futures = new ArrayDeque<>(parallelism);
+                while (submitted < length && submitted - cursor < parallelism) {
+                    Object model = datas.get(submitted++);
+                    futures.add(CompletableFuture.supplyAsync(() -> render(model), executor));
+                }
+                cursor++;
+                try {
+                    return futures.poll().join();
+                } catch (CompletionException e) {
+                    // the rendered documents will never be merged
+                    futures.forEach(future -> future.thenAccept(PoitlIOUtils::closeQuietly));
+                    futures.clear();
+                    cursor = length;
+                    if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                    throw new RenderException("Render merged document error", e);
+                }
             }
 
         }
+
+        private NiceXWPFDocument render(Object model) {
+            XWPFTemplate temp = blueprint.newTemplate();
+            // the nested includes are merged on the thread rendering them, waiting
+            // for the tasks of the same executor in its own task may starve the
+            // bounded pool
+            temp.setMergeExecutor(null);
+            return temp.render(model).getXWPFDocument();
+        }
     }
 }
@@ -16,6 +16,7 @@
 package com.deepoove.poi.policy;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
@@ -25,30 +26,48 @@ import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.apache.xmlbeans.XmlCursor;
 
+import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.data.CellRenderData;
+import com.deepoove.poi.data.ColumnarTableRenderData;
 import com.deepoove.poi.data.MergeCellRule;
 import com.deepoove.poi.data.MergeCellRule.Grid;
 import com.deepoove.poi.data.ParagraphRenderData;
+import com.deepoove.poi.data.RenderData;
 import com.deepoove.poi.data.RowRenderData;
 import com.deepoove.poi.data.TableRenderData;
+import com.deepoove.poi.data.TextRenderData;
 import com.deepoove.poi.data.style.CellStyle;
 import com.deepoove.poi.data.style.ParagraphStyle;
 import com.deepoove.poi.data.style.Style;
 import com.deepoove.poi.data.style.TableStyle;
 import com.deepoove.poi.render.RenderContext;
+import com.deepoove.poi.template.ElementTemplate;
 import com.deepoove.poi.util.StyleUtils;
 import com.deepoove.poi.util.TableTools;
 import com.deepoove.poi.xwpf.BodyContainer;
 import com.deepoove.poi.xwpf.BodyContainerFactory;
 
 /**
- * table render
+ * table render, {@link ColumnarTableRenderData} is rendered by
+ * {@link ColumnarTableRenderPolicy}
  * 
  * @author Sayi
  */
 public class TableRenderPolicy extends AbstractRenderPolicy<TableRenderData> {
 
+    private final ColumnarTableRenderPolicy columnarPolicy = new ColumnarTableRenderPolicy();
+
+    @Override
+    public void render(ElementTemplate eleTemplate, Object data, XWPFTemplate template) {
+        if (data instanceof ColumnarTableRenderData) {
+            columnarPolicy.render(eleTemplate, data, template);
+            return;
+        }
+        super.render(eleTemplate, data, template);
+    }
+
     @Override
     protected boolean validate(TableRenderData data) {
         if (null == data || 0 == data.obtainColSize()) return false;
@@ -84,13 +103,26 @@ public class TableRenderPolicy extends AbstractRenderPolicy<TableRenderData> {
 
         public static void renderTable(XWPFRun run, TableRenderData data) throws Exception {
             BodyContainer bodyContainer = BodyContainerFactory.getBodyContainer(run);
-            XWPFTable table = bodyContainer.insertNewTable(run, data.obtainRowSize(), data.obtainColSize());
+            List<RowRenderData> rows = data.getRows();
+            boolean uniform = isUniform(rows, 1);
+            XWPFTable table = bodyContainer.insertNewTable(run, uniform ? 2 : data.obtainRowSize(),
+                    data.obtainColSize());
             StyleUtils.styleTable(table, data.getTableStyle());
 
-            int size = table.getRows().size();
-            for (int i = 0; i < size; i++) {
-                RowRenderData rowRenderData = data.getRows().get(i);
-                renderRow(table.getRows().get(i), rowRenderData, StyleUtils.retriveStyle(run));
+            Style defaultTextStyle = StyleUtils.retriveStyle(run);
+            if (uniform) {
+                // the rows after the first one are copies of a prototype row with different texts
+                renderRow(table.getRow(0), rows.get(0), defaultTextStyle);
+                XWPFTableRow prototype = table.getRow(1);
+                renderRow(prototype, createPrototype(rows.get(1)), defaultTextStyle);
+                ColumnarTableRenderPolicy.Helper.writeRows(table, prototype, rows.size() - 1,
+                        (i, j) -> getText(rows.get(i + 1).getCells().get(j)).getText());
+                table.removeRow(1);
+            } else {
+                int size = table.getRows().size();
+                for (int i = 0; i < size; i++) {
+                    renderRow(table.getRows().get(i), rows.get(i), defaultTextStyle);
+                }
             }
 
             applyMergeRule(table, data.getMergeRule());
@@ -153,44 +185,114 @@ public class TableRenderPolicy extends AbstractRenderPolicy<TableRenderData> {
             }
         }
 
+        /**
+         * Rows from the index share the same row style, cell styles, paragraph
+         * styles and text styles, and each cell is a single line of text. Null
+         * rows and rows of different sizes are left to {@link #renderRow}.
+         */
+        private static boolean isUniform(List<RowRenderData> rows, int from) {
+            if (rows.size() - from < 2) return false;
+            RowRenderData first = rows.get(from);
+            if (null == first) return false;
+            for (int i = from; i < rows.size(); i++) {
+                RowRenderData row = rows.get(i);
+                if (null == row || row.obtainColSize() != first.obtainColSize()) return false;
+                if (row.getRowStyle() != first.getRowStyle()) return false;
+                for (int j = 0; j < first.obtainColSize(); j++) {
+                    CellRenderData cell = row.getCells().get(j);
+                    CellRenderData firstCell = first.getCells().get(j);
+                    TextRenderData text = getText(cell);
+                    if (null == text || cell.getCellStyle() != firstCell.getCellStyle()) return false;
+                    if (cell.getParagraphs().get(0).getParagraphStyle() != firstCell.getParagraphs().get(0)
+                            .getParagraphStyle()) {
+                        return false;
+                    }
+                    if (text.getStyle() != getText(firstCell).getStyle()) return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the text if the cell contains only one line of plain text
+         */
+        private static TextRenderData getText(CellRenderData cell) {
+            if (null == cell || null == cell.getParagraphs() || 1 != cell.getParagraphs().size()) return null;
+            List<RenderData> contents = cell.getParagraphs().get(0).getContents();
+            if (null == contents || 1 != contents.size() || null == contents.get(0)) return null;
+            if (TextRenderData.class != contents.get(0).getClass()) return null;
+            TextRenderData text = (TextRenderData) contents.get(0);
+            if (null == text.getText() || -1 != text.getText().indexOf('\n')) return null;
+            return text;
+        }
+
+        private static RowRenderData createPrototype(RowRenderData row) {
+            RowRenderData prototype = new RowRenderData();
+            prototype.setRowStyle(row.getRowStyle());
+            for (CellRenderData cell : row.getCells()) {
+                ParagraphRenderData paragraph = new ParagraphRenderData();
+                paragraph.setParagraphStyle(cell.getParagraphs().get(0).getParagraphStyle());
+                paragraph.addText(new TextRenderData(ColumnarTableRenderPolicy.Helper.PLACEHOLDER,
+                        getText(cell).getStyle()));
+                CellRenderData protoCell = new CellRenderData();
+                protoCell.setCellStyle(cell.getCellStyle());
+                protoCell.addParagraph(paragraph);
+                prototype.addCell(protoCell);
+            }
+            return prototype;
+        }
+
+        /**
+         * Apply the merge rule in one pass over the rules, then the merged cells of
+         * each row are removed at once
+         * 
+         * @param table
+         * @param mergeRule
+         */
         private static void applyMergeRule(XWPFTable table, MergeCellRule mergeRule) {
             if (null == mergeRule) return;
-            byte[][] markRemovedCell = new byte[TableTools.obtainRowSize(table)][TableTools.obtainColumnSize(table)];
+            List<XWPFTableRow> rows = table.getRows();
+            // columns of cells to be removed for each row
+            BitSet[] removedCells = new BitSet[rows.size()];
             Iterator<Entry<Grid, Grid>> iterator = mergeRule.mappingIterator();
             while (iterator.hasNext()) {
                 Entry<Grid, Grid> next = iterator.next();
                 Grid key = next.getKey();
                 Grid value = next.getValue();
-                int startI = key.getI() > value.getI() ? value.getI() : key.getI();
-                int startJ = key.getJ() > value.getJ() ? value.getJ() : key.getJ();
-                int endI = key.getI() > value.getI() ? key.getI() : value.getI();
-                int endJ = key.getJ() > value.getJ() ? key.getJ() : value.getJ();
-                // merge(VMerge mark) vertical
+                int startI = Math.min(key.getI(), value.getI());
+                int startJ = Math.min(key.getJ(), value.getJ());
+                int endI = Math.max(key.getI(), value.getI());
+                int endJ = Math.max(key.getJ(), value.getJ());
+                // merge(VMerge mark) vertical, the other columns will be removed
                 if (startI != endI) {
-                    for (int j = startJ; j <= endJ; j++) {
-                        TableTools.mergeCellsVertically(table, j, startI, endI);
-                    }
+                    TableTools.mergeCellsVertically(table, startJ, startI, endI);
                 }
                 // merge horizontal cells without remove cells
                 if (startJ != endJ) {
                     for (int i = startI; i <= endI; i++) {
                         TableTools.mergeCellsHorizontalWithoutRemove(table, i, startJ, endJ);
-                        for (int removedCol = startJ + 1; removedCol <= endJ; removedCol++) {
-                            markRemovedCell[i][removedCol] = 1;
-                        }
+                        if (null == removedCells[i]) removedCells[i] = new BitSet();
+                        removedCells[i].set(startJ + 1, endJ + 1);
                     }
                 }
             }
-            // remove marked cell safely
-            for (int i = 0; i < markRemovedCell.length; i++) {
-                for (int j = markRemovedCell[i].length - 1; j >= 0; j--) {
-                    if (markRemovedCell[i][j] >= 1) {
-                        table.getRow(i).removeCell(j);
-                        if (table.getRow(i).getTableCells().size() != table.getRow(i).getCtRow().sizeOfTcArray()) {
-                            table.getRow(i).getCtRow().removeTc(j);
-                        }
+            // remove marked cells of each row together
+            for (int i = 0; i < removedCells.length; i++) {
+                if (null == removedCells[i]) continue;
+                List<XWPFTableCell> cells = rows.get(i).getTableCells();
+                List<XWPFTableCell> remains = new ArrayList<>(cells.size() - removedCells[i].cardinality());
+                for (int j = 0; j < cells.size(); j++) {
+                    XWPFTableCell cell = cells.get(j);
+                    if (removedCells[i].get(j)) {
+                        XmlCursor cursor = cell.getCTTc().newCursor();
+                        cursor.removeXml();
+                        cursor.dispose();
+                    } else {
+                        remains.add(cell);
                     }
                 }
+                cells.clear();
+                cells.addAll(remains);
             }
         }
 
@@ -15,7 +15,6 @@
  */
 package com.deepoove.poi.render;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
@@ -56,7 +55,7 @@ public class DefaultRender implements Render {
 
         LOGGER.info("Render template start...");
 
-        RenderDataCompute renderDataCompute = template.getConfig().getRenderDataComputeFactory().newCompute(root);
+        RenderDataCompute renderDataCompute = template.newRenderDataCompute(root);
         StopWatch watch = new StopWatch();
         try {
 
@@ -82,43 +81,36 @@ public class DefaultRender implements Render {
         documentRender.process(template.getElementTemplates());
     }
 
-    private void renderInclude(XWPFTemplate template, RenderDataCompute renderDataCompute) throws IOException {
+    private void renderInclude(XWPFTemplate template, RenderDataCompute renderDataCompute) {
         List<MetaTemplate> elementTemplates = template.getElementTemplates();
         long docxCount = elementTemplates.stream()
                 .filter(meta -> (meta instanceof RunTemplate
                         && ((RunTemplate) meta).findPolicy(template.getConfig()) instanceof DocxRenderPolicy))
                 .count();
         if (docxCount >= 1) {
-            template.reload(template.getXWPFDocument().generate());
-            applyDocxPolicy(template, renderDataCompute, docxCount);
+            // resolve the rendered document in place
+            NiceXWPFDocument doc = template.getXWPFDocument();
+            template.reload(doc);
+            applyDocxPolicy(template, renderDataCompute);
+            // rebuild once after all includes
+            doc.rebuild();
+            template.reload(doc);
         }
     }
 
-    private void applyDocxPolicy(XWPFTemplate template, RenderDataCompute renderDataCompute, long docxItems) {
+    private void applyDocxPolicy(XWPFTemplate template, RenderDataCompute renderDataCompute) {
         RenderPolicy policy = null;
-        NiceXWPFDocument current = template.getXWPFDocument();
-        List<MetaTemplate> elementTemplates = template.getElementTemplates();
-        int k = 0;
-        while (k < elementTemplates.size()) {
-            for (k = 0; k < elementTemplates.size(); k++) {
-                MetaTemplate metaTemplate = elementTemplates.get(k);
-                if (!(metaTemplate instanceof RunTemplate)) continue;
-                RunTemplate runTemplate = (RunTemplate) metaTemplate;
-                policy = runTemplate.findPolicy(template.getConfig());
-                if (!(policy instanceof DocxRenderPolicy)) {
-                    continue;
-                }
-
-                LOGGER.info("Start render TemplateName:{}, Sign:{}, policy:{}", runTemplate.getTagName(),
-                        runTemplate.getSign(), ClassUtils.getShortClassName(policy.getClass()));
-                policy.render(runTemplate, renderDataCompute.compute(runTemplate.getTagName()), template);
-
-                if (current != template.getXWPFDocument()) {
-                    current = template.getXWPFDocument();
-                    elementTemplates = template.getElementTemplates();
-                    break;
-                }
+        for (MetaTemplate metaTemplate : template.getElementTemplates()) {
+            if (!(metaTemplate instanceof RunTemplate)) continue;
+            RunTemplate runTemplate = (RunTemplate) metaTemplate;
+            policy = runTemplate.findPolicy(template.getConfig());
+            if (!(policy instanceof DocxRenderPolicy)) {
+                continue;
             }
+
+            LOGGER.info("Start render TemplateName:{}, Sign:{}, policy:{}", runTemplate.getTagName(),
+                    runTemplate.getSign(), ClassUtils.getShortClassName(policy.getClass()));
+            policy.render(runTemplate, renderDataCompute.compute(runTemplate.getTagName()), template);
         }
     }
 
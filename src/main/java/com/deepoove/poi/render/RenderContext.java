@@ -15,6 +15,8 @@
  */
 package com.deepoove.poi.render;
 
+import java.util.concurrent.Executor;
+
 import org.apache.poi.xwpf.usermodel.IBody;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
@@ -52,6 +54,13 @@ public class RenderContext<T> {
         return data;
     }
 
+    /**
+     * The data of tag. Inside a loop, the env of item such as _index is only
+     * valid during the render of the item, see
+     * {@link com.deepoove.poi.render.compute.IterationEnv}
+     * 
+     * @return
+     */
     public T getData() {
         return data;
     }
@@ -85,6 +94,16 @@ public class RenderContext<T> {
         return getTemplate().getConfig();
     }
 
+    /**
+     * The executor to prepare the included documents, null means the current
+     * thread
+     * 
+     * @return
+     */
+    public Executor getMergeExecutor() {
+        return getTemplate().getMergeExecutor();
+    }
+
     public Object getTagSource() {
         return getEleTemplate().getSource();
     }
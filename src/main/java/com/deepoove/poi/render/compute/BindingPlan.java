@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render.compute;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.deepoove.poi.exception.ExpressionEvalException;
+import com.deepoove.poi.expression.DotBinding;
+import com.deepoove.poi.template.BlockTemplate;
+import com.deepoove.poi.template.ElementTemplate;
+import com.deepoove.poi.template.MetaTemplate;
+
+/**
+ * The bindings of the tags of one template to one root model class.
+ * 
+ * <p>
+ * Each tag is bound to the accessor chain of its expression, which is
+ * specialised to the model classes on first evaluation and reused by the
+ * following renders of the template. The plan is used by
+ * {@link DefaultELRenderDataCompute}. The tags resolved while rendering, such
+ * as the tags of table rows, are bound on first use, at most
+ * {@value #MAXIMUM_LATE_BINDINGS} of them, the others are evaluated by the
+ * default EL.
+ * </p>
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+public final class BindingPlan {
+
+    private static final String THIS = "#this";
+    private static final int MAXIMUM_LATE_BINDINGS = 256;
+    private static final Object UNBOUND = new Object();
+
+    private final Class<?> rootClass;
+    private final Map<String, DotBinding> bindings;
+    // DotBinding or UNBOUND of the tags out of the templates
+    private final Map<String, Object> lateBindings = new ConcurrentHashMap<String, Object>();
+
+    private BindingPlan(Class<?> rootClass, Map<String, DotBinding> bindings) {
+        this.rootClass = rootClass;
+        this.bindings = bindings;
+    }
+
+    /**
+     * Plan the tags of the templates, including the nested ones
+     * 
+     * @param rootClass
+     * @param templates
+     * @return
+     */
+    public static BindingPlan of(Class<?> rootClass, List<MetaTemplate> templates) {
+        Map<String, DotBinding> bindings = new HashMap<String, DotBinding>();
+        collect(templates, bindings);
+        return new BindingPlan(rootClass, Collections.unmodifiableMap(bindings));
+    }
+
+    private static void collect(List<MetaTemplate> templates, Map<String, DotBinding> bindings) {
+        for (MetaTemplate template : templates) {
+            if (template instanceof BlockTemplate) {
+                BlockTemplate block = (BlockTemplate) template;
+                bind(block.getStartMark().getTagName(), bindings);
+                collect(block.getTemplates(), bindings);
+            } else if (template instanceof ElementTemplate) {
+                bind(((ElementTemplate) template).getTagName(), bindings);
+            }
+        }
+    }
+
+    private static void bind(String tagName, Map<String, DotBinding> bindings) {
+        if (null == tagName || bindings.containsKey(tagName)) return;
+        DotBinding binding = bind(tagName);
+        if (null != binding) bindings.put(tagName, binding);
+    }
+
+    private static DotBinding bind(String tagName) {
+        if (THIS.equals(tagName)) return null;
+        try {
+            return DotBinding.of(tagName);
+        } catch (ExpressionEvalException e) {
+            // not a dot expression, the error is reported on evaluation
+            return null;
+        }
+    }
+
+    /**
+     * Find the binding of the tag name, the tag out of the templates is bound
+     * on first use
+     * 
+     * @param tagName
+     * @return null if the tag is not a dot expression or there are too many late
+     *         bindings
+     */
+    public DotBinding find(String tagName) {
+        DotBinding binding = bindings.get(tagName);
+        if (null != binding || null == tagName) return binding;
+        Object late = lateBindings.get(tagName);
+        if (null == late) {
+            if (lateBindings.size() >= MAXIMUM_LATE_BINDINGS) return null;
+            DotBinding lateBinding = bind(tagName);
+            late = lateBindings.computeIfAbsent(tagName, k -> null == lateBinding ? UNBOUND : lateBinding);
+        }
+        return late == UNBOUND ? null : (DotBinding) late;
+    }
+
+    public Class<?> getRootClass() {
+        return rootClass;
+    }
+
+    public Map<String, DotBinding> getBindings() {
+        return bindings;
+    }
+
+}
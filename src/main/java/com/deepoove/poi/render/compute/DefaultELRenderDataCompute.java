@@ -15,19 +15,24 @@
  */
 package com.deepoove.poi.render.compute;
 
+import java.util.function.Function;
+
 import com.deepoove.poi.exception.ExpressionEvalException;
 import com.deepoove.poi.expression.DefaultEL;
+import com.deepoove.poi.expression.DotBinding;
 
 /**
  * default expression compute
  * 
  * @author Sayi
  */
-public class DefaultELRenderDataCompute implements RenderDataCompute {
+public class DefaultELRenderDataCompute implements ResettableRenderDataCompute {
 
     private DefaultEL elObject;
     private DefaultEL envObject;
     private boolean isStrict;
+    private Function<Class<?>, BindingPlan> bindingPlans;
+    private BindingPlan bindingPlan;
 
     public DefaultELRenderDataCompute(EnvModel model, boolean isStrict) {
         this.elObject = DefaultEL.create(model.getRoot());
@@ -37,6 +42,38 @@ public class DefaultELRenderDataCompute implements RenderDataCompute {
         this.isStrict = isStrict;
     }
 
+    @Override
+    public void reset(EnvModel model) {
+        this.elObject.reset(model.getRoot());
+        if (null != model.getEnv() && !model.getEnv().isEmpty()) {
+            if (null == envObject) this.envObject = DefaultEL.create(model.getEnv());
+            else this.envObject.reset(model.getEnv());
+        } else {
+            this.envObject = null;
+        }
+        if (null != bindingPlans) planFor(model.getRoot());
+    }
+
+    /**
+     * Evaluate the tags by the binding plans of the root model classes, the
+     * tags which are not planned are evaluated as usual
+     * 
+     * @param bindingPlans the plan of each root model class
+     */
+    public void setBindingPlans(Function<Class<?>, BindingPlan> bindingPlans) {
+        this.bindingPlans = bindingPlans;
+        this.bindingPlan = null;
+        if (null != bindingPlans) planFor(elObject.getModel());
+    }
+
+    private void planFor(Object root) {
+        if (null == root) {
+            bindingPlan = null;
+        } else if (null == bindingPlan || bindingPlan.getRootClass() != root.getClass()) {
+            bindingPlan = bindingPlans.apply(root.getClass());
+        }
+    }
+
     @Override
     public Object compute(String el) {
         try {
@@ -50,6 +87,10 @@ public class DefaultELRenderDataCompute implements RenderDataCompute {
                     // ignore
                 }
             }
+            if (null != bindingPlan) {
+                DotBinding binding = bindingPlan.find(el);
+                if (null != binding) return binding.eval(elObject);
+            }
             return elObject.eval(el);
         } catch (ExpressionEvalException e) {
             if (isStrict) throw e;
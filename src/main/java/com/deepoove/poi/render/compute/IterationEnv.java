@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render.compute;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The env of loop item: _is_first, _is_last, _has_next, _is_even_item,
+ * _is_odd_item and _index.
+ * 
+ * <p>
+ * One env is advanced through all the items of a loop, the values are read
+ * from the state of iteration when they are used. A reference kept after the
+ * item is rendered sees the values of the following items, keep
+ * {@link #snapshot()} instead. The computes which are not
+ * {@link ResettableRenderDataCompute resettable} are created with a snapshot
+ * for each item.
+ * </p>
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+public class IterationEnv extends AbstractMap<String, Object> {
+
+    public static final String IS_FIRST = "_is_first";
+    public static final String IS_LAST = "_is_last";
+    public static final String HAS_NEXT = "_has_next";
+    public static final String IS_EVEN_ITEM = "_is_even_item";
+    public static final String IS_ODD_ITEM = "_is_odd_item";
+    public static final String INDEX = "_index";
+
+    private static final List<String> KEYS = Arrays.asList(IS_FIRST, IS_LAST, HAS_NEXT, IS_EVEN_ITEM, IS_ODD_ITEM,
+            INDEX);
+
+    private int index = -1;
+    private boolean hasNext;
+
+    /**
+     * move to the next item
+     * 
+     * @param hasNext if there are items after it
+     * @return
+     */
+    public IterationEnv next(boolean hasNext) {
+        this.index++;
+        this.hasNext = hasNext;
+        return this;
+    }
+
+    /**
+     * The values of the current item, which are not changed by the following
+     * items
+     * 
+     * @return
+     */
+    public Map<String, Object> snapshot() {
+        return Collections.unmodifiableMap(new HashMap<String, Object>(this));
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) return null;
+        switch ((String) key) {
+        case IS_FIRST:
+            return index == 0;
+        case IS_LAST:
+            return !hasNext;
+        case HAS_NEXT:
+            return hasNext;
+        case IS_EVEN_ITEM:
+            return index % 2 == 1;
+        case IS_ODD_ITEM:
+            return index % 2 == 0;
+        case INDEX:
+            return index;
+        default:
+            return null;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return KEYS.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return KEYS.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<String> keys = KEYS.iterator();
+                return new Iterator<Entry<String, Object>>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        String key = keys.next();
+                        return new SimpleImmutableEntry<String, Object>(key, get(key));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return KEYS.size();
+            }
+        };
+    }
+
+}
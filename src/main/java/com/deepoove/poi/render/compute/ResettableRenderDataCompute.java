@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render.compute;
+
+/**
+ * Compute that can be reset to another model, the items of a loop are computed
+ * by one instance
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+public interface ResettableRenderDataCompute extends RenderDataCompute {
+
+    /**
+     * compute the expressions of model from now on
+     * 
+     * <p>
+     * The model and its env of loop item are reused by the following items,
+     * they are valid until the next reset. Copy the root and
+     * {@link IterationEnv#snapshot()} if they are kept.
+     * </p>
+     * 
+     * @param model
+     */
+    void reset(EnvModel model);
+
+}
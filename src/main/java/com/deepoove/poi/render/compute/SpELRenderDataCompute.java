@@ -17,22 +17,37 @@ package com.deepoove.poi.render.compute;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 /**
  * Spring expression language compute
+ * <p>
+ * The interpreted expressions are parsed once and shared by all the computes.
+ * The compiled expressions of {@link SpelCompilerMode#IMMEDIATE} and
+ * {@link SpelCompilerMode#MIXED} are shared by the computes of one
+ * {@link #factory(boolean, Map, SpelCompilerMode) factory} only, and are
+ * compiled for each root model class. With
+ * {@link SpelCompilerMode#IMMEDIATE}, the compiled expression still fails if
+ * the types of the nested values change, use {@link SpelCompilerMode#MIXED}
+ * for such models.
+ * </p>
  * 
  * @author Sayi
  * @since 1.5.0
  */
-public class SpELRenderDataCompute implements RenderDataCompute {
+public class SpELRenderDataCompute implements ResettableRenderDataCompute {
 
-    private final ExpressionParser parser;
+    private final ExpressionCache expressions;
     private final EvaluationContext context;
     private EvaluationContext envContext;
     private boolean isStrict;
@@ -46,8 +61,22 @@ public class SpELRenderDataCompute implements RenderDataCompute {
     }
 
     public SpELRenderDataCompute(EnvModel model, boolean isStrict, Map<String, Method> spELFunction) {
+        this(model, isStrict, spELFunction, SpelCompilerMode.OFF);
+    }
+
+    /**
+     * The compiled expressions are owned by this compute, use
+     * {@link #factory(boolean, Map, SpelCompilerMode)} to share them
+     */
+    public SpELRenderDataCompute(EnvModel model, boolean isStrict, Map<String, Method> spELFunction,
+            SpelCompilerMode compilerMode) {
+        this(model, isStrict, spELFunction, ExpressionCache.of(compilerMode));
+    }
+
+    private SpELRenderDataCompute(EnvModel model, boolean isStrict, Map<String, Method> spELFunction,
+            ExpressionCache expressions) {
         this.isStrict = isStrict;
-        this.parser = new SpelExpressionParser();
+        this.expressions = expressions;
         if (null != model.getEnv() && !model.getEnv().isEmpty()) {
             this.envContext = new StandardEvaluationContext(model.getEnv());
             ((StandardEvaluationContext) envContext).addPropertyAccessor(new ReadMapAccessor());
@@ -57,12 +86,44 @@ public class SpELRenderDataCompute implements RenderDataCompute {
         spELFunction.forEach(((StandardEvaluationContext) context)::registerFunction);
     }
 
+    /**
+     * Create the factory of computes, the computes created by the factory share
+     * the parsed and compiled expressions
+     * 
+     * @param isStrict
+     * @param spELFunction
+     * @param compilerMode
+     * @return
+     */
+    public static RenderDataComputeFactory factory(boolean isStrict, Map<String, Method> spELFunction,
+            SpelCompilerMode compilerMode) {
+        ExpressionCache expressions = ExpressionCache.of(compilerMode);
+        return model -> new SpELRenderDataCompute(model, isStrict, spELFunction, expressions);
+    }
+
+    @Override
+    public void reset(EnvModel model) {
+        if (null != model.getEnv() && !model.getEnv().isEmpty()) {
+            if (null == envContext) {
+                this.envContext = new StandardEvaluationContext(model.getEnv());
+                ((StandardEvaluationContext) envContext).addPropertyAccessor(new ReadMapAccessor());
+            } else {
+                ((StandardEvaluationContext) envContext).setRootObject(model.getEnv());
+            }
+        } else {
+            this.envContext = null;
+        }
+        ((StandardEvaluationContext) context).setRootObject(model.getRoot());
+    }
+
     @Override
     public Object compute(String el) {
         try {
             if (null != envContext && !el.contains("#this")) {
                 try {
-                    Object val = parser.parseExpression(el).getValue(envContext);
+                    Object val = expressions.get(el, envContext).getValue(envContext);
+                    // the env is advanced by the following items
+                    if (val instanceof IterationEnv) return ((IterationEnv) val).snapshot();
                     if (null != val) {
                         return val;
                     }
@@ -70,11 +131,67 @@ public class SpELRenderDataCompute implements RenderDataCompute {
                     // ignore
                 }
             }
-            return parser.parseExpression(el).getValue(context);
+            return expressions.get(el, context).getValue(context);
         } catch (Exception e) {
             if (isStrict) throw e;
             return null;
         }
     }
 
+    /**
+     * Bounded cache of parsed expressions, the extra entries are evicted one by
+     * one. The compiled expressions are cached for each class of root object.
+     */
+    private static class ExpressionCache {
+
+        private static final int MAXIMUM_SIZE = 4096;
+        private static final int MAXIMUM_TYPES = 64;
+
+        private static final ExpressionCache INTERPRETED = new ExpressionCache(SpelCompilerMode.OFF);
+
+        private final ExpressionParser parser;
+        private final boolean compiled;
+        private final Map<String, Expression> expressions = new ConcurrentHashMap<>(64);
+        private final Map<Class<?>, Map<String, Expression>> compiledExpressions = new ConcurrentHashMap<>(16);
+
+        private ExpressionCache(SpelCompilerMode compilerMode) {
+            this.parser = new SpelExpressionParser(
+                    new SpelParserConfiguration(compilerMode, SpELRenderDataCompute.class.getClassLoader()));
+            this.compiled = SpelCompilerMode.OFF != compilerMode;
+        }
+
+        static ExpressionCache of(SpelCompilerMode compilerMode) {
+            if (null == compilerMode || SpelCompilerMode.OFF == compilerMode) return INTERPRETED;
+            return new ExpressionCache(compilerMode);
+        }
+
+        Expression get(String el, EvaluationContext context) {
+            Map<String, Expression> cache = compiled ? forType(context.getRootObject().getValue()) : expressions;
+            Expression expression = cache.get(el);
+            if (null != expression) return expression;
+            expression = parser.parseExpression(el);
+            Expression previous = cache.putIfAbsent(el, expression);
+            if (null != previous) return previous;
+            trim(cache, el, MAXIMUM_SIZE);
+            return expression;
+        }
+
+        private Map<String, Expression> forType(Object root) {
+            Class<?> type = null == root ? Void.class : root.getClass();
+            Map<String, Expression> cache = compiledExpressions.get(type);
+            if (null != cache) return cache;
+            cache = compiledExpressions.computeIfAbsent(type, k -> new ConcurrentHashMap<>(64));
+            trim(compiledExpressions, type, MAXIMUM_TYPES);
+            return cache;
+        }
+
+        private static <K> void trim(Map<K, ?> cache, K retained, int maximumSize) {
+            // evicted entries are parsed again on demand, the order of eviction doesn't matter
+            Iterator<K> iterator = cache.keySet().iterator();
+            while (cache.size() > maximumSize && iterator.hasNext()) {
+                if (!retained.equals(iterator.next())) iterator.remove();
+            }
+        }
+    }
+
 }
@@ -16,17 +16,18 @@
 
 package com.deepoove.poi.render.processor;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.data.RenderDataSource;
 import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.IterationEnv;
 import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.render.compute.ResettableRenderDataCompute;
 import com.deepoove.poi.resolver.Resolver;
 import com.deepoove.poi.template.IterableTemplate;
 import com.deepoove.poi.template.MetaTemplate;
@@ -49,8 +50,13 @@ public abstract class AbstractIterableProcessor extends DefaultTemplateProcessor
 
         if (null == compute || (compute instanceof Boolean && !(Boolean) compute)) {
             handleNever(iterableTemplate, bodyContainer);
-        } else if (compute instanceof Iterable) {
+        } else if (compute instanceof Iterable && !(compute instanceof AutoCloseable)) {
             handleIterable(iterableTemplate, bodyContainer, (Iterable<?>) compute);
+        } else if (RenderDataSource.isSource(compute)) {
+            // consumed once and closed after the loop
+            try (RenderDataSource<Object> source = RenderDataSource.from(compute)) {
+                handleIterable(iterableTemplate, bodyContainer, () -> source);
+            }
         } else {
             if (compute instanceof Boolean && (Boolean) compute) {
                 handleOnceWithScope(iterableTemplate, renderDataCompute);
@@ -74,19 +80,16 @@ public abstract class AbstractIterableProcessor extends DefaultTemplateProcessor
     
     protected void foreach(IterableTemplate iterableTemplate, ParentContext parentContext, IterableContext context,
             Iterator<?> iterator) {
-        Map<String, Object> env = new HashMap<>();
-        int index = 0;
+        // the env and model are advanced through the items
+        IterationEnv env = new IterationEnv();
+        EnvModel model = EnvModel.of(null, env);
         boolean hasNext = iterator.hasNext();
         while (hasNext) {
             Object root = iterator.next();
             hasNext = iterator.hasNext();
-            env.put("_is_first", index == 0);
-            env.put("_is_last", !hasNext);
-            env.put("_has_next", hasNext);
-            env.put("_is_even_item", index % 2 == 1);
-            env.put("_is_odd_item", index % 2 == 0);
-            env.put("_index", index++);
-            next(iterableTemplate, parentContext, context, EnvModel.of(root, env));
+            env.next(hasNext);
+            model.setRoot(root);
+            next(iterableTemplate, parentContext, context, model);
         }
     }
 
@@ -98,8 +101,35 @@ public abstract class AbstractIterableProcessor extends DefaultTemplateProcessor
         new DocumentProcessor(this.template, this.resolver, dataCompute).process(iterableTemplate.getTemplates());
     }
 
+    /**
+     * process the templates of loop item, the compute and processor are reused
+     * by the items if the compute is resettable
+     */
+    protected void process(List<MetaTemplate> templates, Object model, IterableContext context) {
+        ResettableRenderDataCompute dataCompute = context.getRenderDataCompute();
+        if (null != dataCompute) {
+            dataCompute.reset(model instanceof EnvModel ? (EnvModel) model : EnvModel.ofModel(model));
+            context.getProcessor().process(templates);
+            return;
+        }
+        // the compute which is not reset keeps the model of its item
+        RenderDataCompute compute = template.newRenderDataCompute(snapshot(model));
+        DocumentProcessor processor = new DocumentProcessor(this.template, this.resolver, compute);
+        if (compute instanceof ResettableRenderDataCompute) {
+            context.setProcessor((ResettableRenderDataCompute) compute, processor);
+        }
+        processor.process(templates);
+    }
+
+    private static Object snapshot(Object model) {
+        if (!(model instanceof EnvModel)) return model;
+        EnvModel envModel = (EnvModel) model;
+        if (!(envModel.getEnv() instanceof IterationEnv)) return model;
+        return EnvModel.of(envModel.getRoot(), ((IterationEnv) envModel.getEnv()).snapshot());
+    }
+
     protected void process(List<MetaTemplate> templates, Object model) {
-        RenderDataCompute dataCompute = template.getConfig().getRenderDataComputeFactory().newCompute(model);
+        RenderDataCompute dataCompute = template.newRenderDataCompute(model);
         new DocumentProcessor(this.template, this.resolver, dataCompute).process(templates);
     }
 
@@ -15,6 +15,7 @@
  */
 package com.deepoove.poi.render.processor;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -64,18 +65,20 @@ public class DocumentProcessor implements Visitor {
 
     @SuppressWarnings("deprecation")
     private Set<XWPFTextboxContent> obtainTextboxes(List<MetaTemplate> templates) {
-        Set<XWPFTextboxContent> textboxs = new HashSet<>();
+        // most templates are not in textboxes, the set is created when needed
+        Set<XWPFTextboxContent> textboxs = Collections.emptySet();
         if (CollectionUtils.isEmpty(templates)) return textboxs;
-        templates.forEach(template -> {
+        for (MetaTemplate template : templates) {
             RunTemplate checkTemplate = template instanceof RunTemplate ? (RunTemplate) template
                     : (template instanceof BlockTemplate ? ((BlockTemplate) template).getStartMark() : null);
             if (null != checkTemplate) {
                 if (checkTemplate.getRun().getParent() instanceof XWPFParagraph
                         && checkTemplate.getRun().getParagraph().getBody() instanceof XWPFTextboxContent) {
+                    if (textboxs.isEmpty()) textboxs = new HashSet<>();
                     textboxs.add((XWPFTextboxContent) checkTemplate.getRun().getParagraph().getBody());
                 }
             }
-        });
+        }
         return textboxs;
     }
 
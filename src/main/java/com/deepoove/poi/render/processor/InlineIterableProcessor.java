@@ -117,7 +117,7 @@ public class InlineIterableProcessor extends AbstractIterableProcessor {
         List<MetaTemplate> templates = this.resolver.resolveXWPFRuns(copies);
 
         // render
-        process(templates, model);
+        process(templates, model, context);
     }
 
 }
@@ -15,6 +15,14 @@
  */
 package com.deepoove.poi.render.processor;
 
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+
+import com.deepoove.poi.render.compute.ResettableRenderDataCompute;
+import com.deepoove.poi.resolver.TemplateIndex;
+
 public class IterableContext {
 
     private int start;
@@ -22,6 +30,15 @@ public class IterableContext {
 
     private NumberingContinue numberingContinue;
 
+    private TemplateIndex blockIndex;
+
+    private List<IBodyElement> block;
+    private List<IBodyElement> preparedCopies;
+    private int preparedPos;
+
+    private ResettableRenderDataCompute renderDataCompute;
+    private DocumentProcessor processor;
+
     public IterableContext(int start, int end) {
         this(start, end, null);
     }
@@ -56,4 +73,75 @@ public class IterableContext {
         this.numberingContinue = numberingContinue;
     }
 
+    /**
+     * @return the tag locations of block, null if the copies should be resolved
+     */
+    public TemplateIndex getBlockIndex() {
+        return blockIndex;
+    }
+
+    public void setBlockIndex(TemplateIndex blockIndex) {
+        this.blockIndex = blockIndex;
+    }
+
+    /**
+     * @return the paragraphs and tables of block to copy
+     */
+    public List<IBodyElement> getBlock() {
+        return block;
+    }
+
+    public void setBlock(List<IBodyElement> block) {
+        this.block = block;
+    }
+
+    /**
+     * The copies of block inserted before iterating, in order of iterations
+     * 
+     * @param preparedCopies
+     */
+    public void setPreparedCopies(List<IBodyElement> preparedCopies) {
+        this.preparedCopies = preparedCopies;
+        this.preparedPos = 0;
+    }
+
+    /**
+     * @return the prepared copies of next iteration, null if all are used
+     */
+    public List<IBodyElement> pollPreparedCopies() {
+        if (null == preparedCopies || null == block || preparedPos + block.size() > preparedCopies.size()) {
+            return null;
+        }
+        List<IBodyElement> copies = preparedCopies.subList(preparedPos, preparedPos + block.size());
+        preparedPos += block.size();
+        return copies;
+    }
+
+    /**
+     * @return the prepared copies not used by iterations
+     */
+    public List<IBodyElement> getUnusedCopies() {
+        if (null == preparedCopies) return Collections.emptyList();
+        return preparedCopies.subList(preparedPos, preparedCopies.size());
+    }
+
+    /**
+     * @return the compute reused by items, null if the compute is not resettable
+     */
+    public ResettableRenderDataCompute getRenderDataCompute() {
+        return renderDataCompute;
+    }
+
+    /**
+     * @return the processor of items with the reused compute
+     */
+    public DocumentProcessor getProcessor() {
+        return processor;
+    }
+
+    public void setProcessor(ResettableRenderDataCompute renderDataCompute, DocumentProcessor processor) {
+        this.renderDataCompute = renderDataCompute;
+        this.processor = processor;
+    }
+
 }
@@ -17,6 +17,7 @@
 package com.deepoove.poi.render.processor;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.poi.xwpf.usermodel.BodyElementType;
@@ -24,14 +25,13 @@ import org.apache.poi.xwpf.usermodel.IBodyElement;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
-import org.apache.xmlbeans.XmlCursor;
-import org.apache.xmlbeans.XmlObject;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.exception.ResolverException;
 import com.deepoove.poi.render.compute.RenderDataCompute;
 import com.deepoove.poi.resolver.Resolver;
+import com.deepoove.poi.resolver.TemplateIndex;
 import com.deepoove.poi.template.IterableTemplate;
 import com.deepoove.poi.template.MetaTemplate;
 import com.deepoove.poi.xwpf.BodyContainer;
@@ -81,6 +81,8 @@ public class IterableProcessor extends AbstractIterableProcessor {
 
     @Override
     protected void handleIterable(IterableTemplate iterableTemplate, BodyContainer bodyContainer, Iterable<?> compute) {
+        // the copies are inserted at the end of block, keep the positions indexed
+        bodyContainer.enablePositionIndex();
         CTP startCtp = ((XWPFParagraph) iterableTemplate.getStartRun().getParent()).getCTP();
         CTP endCtp = ((XWPFParagraph) iterableTemplate.getEndRun().getParent()).getCTP();
 
@@ -89,9 +91,27 @@ public class IterableProcessor extends AbstractIterableProcessor {
 
         NumberingContinue numbringContinue = NumberingContinue.of(bodyContainer, startPos, endPos, iterableTemplate);
         IterableContext context = new IterableContext(startPos, endPos, numbringContinue);
+        List<IBodyElement> block = getBlock(bodyContainer, startPos, endPos);
+        context.setBlock(block);
+        context.setBlockIndex(indexBlock(iterableTemplate, block));
+
+        // the size is known, copy the block for all iterations at once
+        if (compute instanceof Collection && !block.isEmpty()) {
+            int size = ((Collection<?>) compute).size();
+            if (size > 0) context.setPreparedCopies(bodyContainer.insertCopies(endCtp, block, size));
+        }
 
         foreach(iterableTemplate, bodyContainer, context, compute.iterator());
 
+        // the collection is changed while iterating
+        List<IBodyElement> unusedCopies = context.getUnusedCopies();
+        if (!unusedCopies.isEmpty()) {
+            int pos = bodyContainer.getPosOfElement(unusedCopies.get(0));
+            for (int i = unusedCopies.size() - 1; i >= 0; i--) {
+                bodyContainer.removeBodyElement(pos + i);
+            }
+        }
+
         // clear self iterable template
         for (int i = endPos - 1; i > startPos; i--) {
             bodyContainer.removeBodyElement(i);
@@ -103,62 +123,67 @@ public class IterableProcessor extends AbstractIterableProcessor {
         BodyContainer bodyContainer = (BodyContainer) parentContext;
         XWPFParagraph endParagraph = (XWPFParagraph) iterable.getEndRun().getParent();
         CTP endCtp = endParagraph.getCTP();
-
-        int start = context.getStart();
-        int end = context.getEnd();
         context.getNumberingContinue().resetCache();
 
-        // copy positon cursor
-        XmlCursor insertPostionCursor = endCtp.newCursor();
-
         // copy content
-        List<IBodyElement> bodyElements = bodyContainer.getBodyElements();
-        List<IBodyElement> copies = new ArrayList<IBodyElement>();
-        for (int i = start + 1; i < end; i++) {
-            IBodyElement iBodyElement = bodyElements.get(i);
-            if (iBodyElement.getElementType() == BodyElementType.PARAGRAPH) {
-                insertPostionCursor = endCtp.newCursor();
-                XWPFParagraph insertNewParagraph = bodyContainer.insertNewParagraph(insertPostionCursor);
-                // find insert paragraph pos
-                int paraPos = bodyContainer.getParaPos(insertNewParagraph);
-                bodyContainer.setParagraph((XWPFParagraph) iBodyElement, paraPos);
-                // re-update ctp reference
-                insertPostionCursor = endCtp.newCursor();
-                insertPostionCursor.toPrevSibling();
-                XmlObject object = insertPostionCursor.getObject();
-                XWPFParagraph copy = new XWPFParagraph((CTP) object, bodyContainer.getTarget());
+        List<IBodyElement> block = context.getBlock();
+        List<IBodyElement> copies = context.pollPreparedCopies();
+        if (null == copies) copies = bodyContainer.insertCopies(endCtp, block, 1);
+        for (int i = 0; i < block.size(); i++) {
+            IBodyElement copy = copies.get(i);
+            if (copy.getElementType() == BodyElementType.PARAGRAPH) {
                 // update docpr
-                DrawingSupport.updateDocPrId(copy);
+                DrawingSupport.updateDocPrId((XWPFParagraph) copy);
                 // update numbering
-                context.getNumberingContinue().updateNumbering((XWPFParagraph) iBodyElement, copy);
-
-                copies.add(copy);
-                bodyContainer.updateBodyElements(insertNewParagraph, copy);
-                bodyContainer.setParagraph(copy, paraPos);
-            } else if (iBodyElement.getElementType() == BodyElementType.TABLE) {
-                insertPostionCursor = endCtp.newCursor();
-                XWPFTable insertNewTbl = bodyContainer.insertNewTbl(insertPostionCursor);
-                // find insert table pos
-                int tablePos = bodyContainer.getTablePos(insertNewTbl);
-                bodyContainer.setTable(tablePos, (XWPFTable) iBodyElement);
-
-                insertPostionCursor = endCtp.newCursor();
-                insertPostionCursor.toPrevSibling();
-                XmlObject object = insertPostionCursor.getObject();
-
-                XWPFTable copy = new XWPFTable((CTTbl) object, bodyContainer.getTarget());
-                DrawingSupport.updateDocPrId(copy);
-                copies.add(copy);
-                bodyContainer.updateBodyElements(insertNewTbl, copy);
-                bodyContainer.setTable(tablePos, copy);
+                context.getNumberingContinue().updateNumbering((XWPFParagraph) block.get(i), (XWPFParagraph) copy);
+            } else {
+                DrawingSupport.updateDocPrId((XWPFTable) copy);
             }
         }
 
-        // re-parse
-        List<MetaTemplate> templates = this.resolver.resolveBodyElements(copies);
+        // locate the tags of copies by the block index, re-parse if it does not match
+        List<MetaTemplate> templates = null;
+        if (null != context.getBlockIndex()) {
+            try {
+                templates = this.resolver.resolveBodyElements(copies, context.getBlockIndex());
+            } catch (ResolverException e) {
+                logger.warn("The block index does not match the copies, resolve again: {}", e.getMessage());
+                context.setBlockIndex(null);
+            }
+        }
+        if (null == templates) templates = this.resolver.resolveBodyElements(copies);
 
         // render
-        process(templates, model);
+        process(templates, model, context);
+    }
+
+    /**
+     * only paragraphs and tables of block are copied
+     */
+    private List<IBodyElement> getBlock(BodyContainer bodyContainer, int start, int end) {
+        List<IBodyElement> bodyElements = bodyContainer.getBodyElements();
+        List<IBodyElement> block = new ArrayList<IBodyElement>();
+        for (int i = start + 1; i < end; i++) {
+            IBodyElement element = bodyElements.get(i);
+            if (element.getElementType() == BodyElementType.PARAGRAPH
+                    || element.getElementType() == BodyElementType.TABLE) {
+                block.add(element);
+            }
+        }
+        return block;
+    }
+
+    /**
+     * The tags of block are located once, the copies of each iteration have the
+     * same layout of tags
+     */
+    private TemplateIndex indexBlock(IterableTemplate iterableTemplate, List<IBodyElement> block) {
+        try {
+            return TemplateIndex.of(block, iterableTemplate.getTemplates(), template.getConfig());
+        } catch (ResolverException e) {
+            logger.debug("Cannot index the block, the copies will be resolved: {}", e.getMessage());
+            return null;
+        }
     }
 
 }
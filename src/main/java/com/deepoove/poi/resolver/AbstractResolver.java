@@ -35,6 +35,7 @@ public abstract class AbstractResolver implements Resolver {
 
     protected Pattern templatePattern;
     protected Pattern gramerPattern;
+    protected TagScanner tagScanner;
 
     private static final String FORMAT_TEMPLATE = "{0}{1}{2}{3}";
     private static final String FORMAT_GRAMER = "({0})|({1})";
@@ -52,6 +53,7 @@ public abstract class AbstractResolver implements Resolver {
         templatePattern = Pattern
                 .compile(MessageFormat.format(FORMAT_TEMPLATE, prefix, sign, config.getGrammerRegex(), suffix));
         gramerPattern = Pattern.compile(MessageFormat.format(FORMAT_GRAMER, prefix, suffix));
+        tagScanner = TagScanner.of(config, sign);
     }
 
     String getGramarRegex(Configure config) {
@@ -76,4 +78,8 @@ public abstract class AbstractResolver implements Resolver {
         return gramerPattern;
     }
 
+    public TagScanner getTagScanner() {
+        return tagScanner;
+    }
+
 }
@@ -47,6 +47,17 @@ public interface Resolver {
      */
     List<MetaTemplate> resolveBodyElements(List<IBodyElement> bodyElements);
 
+    /**
+     * resolve body elements by the tag locations of index
+     * 
+     * @param bodyElements
+     * @param index        null means resolving the body elements
+     * @return
+     */
+    default List<MetaTemplate> resolveBodyElements(List<IBodyElement> bodyElements, TemplateIndex index) {
+        return resolveBodyElements(bodyElements);
+    }
+
     /**
      * resolve runs at same paragraph
      * 
@@ -17,7 +17,6 @@ package com.deepoove.poi.resolver;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.namespace.QName;
@@ -35,6 +34,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.impl.CTRImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.deepoove.poi.resolver.TagScanner.TagMatcher;
 import com.deepoove.poi.util.StyleUtils;
 import com.deepoove.poi.xwpf.XWPFParagraphWrapper;
 
@@ -59,16 +59,24 @@ public class RunningRunParagraph {
     List<Pair<RunEdge, RunEdge>> pairs = new ArrayList<>();
 
     public RunningRunParagraph(XWPFParagraph paragraph, Pattern pattern) {
+        this(paragraph, TagScanner.of(pattern, null));
+    }
+
+    public RunningRunParagraph(XWPFParagraph paragraph, TagScanner scanner) {
         this.paragraph = new XWPFParagraphWrapper(paragraph);
         this.runs = paragraph.getRuns();
         if (null == runs || runs.isEmpty()) return;
 
-        Matcher matcher = pattern.matcher(paragraph.getParagraphText());
-        if (matcher.find()) {
-            refactorParagraph();
+        TagMatcher matcher = scanner.matcher(paragraph.getParagraphText());
+        // no template, nothing to refactor
+        if (!matcher.find()) return;
+        if (refactorParagraph()) {
+            // the runs of break are splited, text may be changed
+            matcher = scanner.matcher(paragraph.getParagraphText());
+            if (!matcher.find()) return;
         }
 
-        buildRunEdge(pattern);
+        buildRunEdge(matcher);
     }
 
     public List<XWPFRun> refactorRun() {
@@ -136,7 +144,8 @@ public class RunningRunParagraph {
         extraRun.setText(extra, 0);
     }
 
-    private void refactorParagraph() {
+    private boolean refactorParagraph() {
+        boolean refactored = false;
         for (int i = runs.size() - 1; i >= 0; i--) {
             XWPFRun xwpfRun = runs.get(i);
             CTR ctr = xwpfRun.getCTR();
@@ -172,20 +181,20 @@ public class RunningRunParagraph {
                         }
                     }
                     paragraph.removeRun(i);
+                    refactored = true;
                 }
             }
         }
         this.runs = paragraph.getParagraph().getRuns();
+        return refactored;
     }
 
-    private void buildRunEdge(Pattern pattern) {
-        // find all templates
-        Matcher matcher = pattern.matcher(paragraph.getParagraph().getParagraphText());
-        while (matcher.find()) {
+    private void buildRunEdge(TagMatcher matcher) {
+        // find all templates, the matcher has found the first one
+        do {
             pairs.add(ImmutablePair.of(new RunEdge(matcher.start(), matcher.group()),
                     new RunEdge(matcher.end(), matcher.group())));
-        }
-        if (pairs.isEmpty()) return;
+        } while (matcher.find());
 
         boolean endflag = false;
         int size = runs.size();
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.resolver;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.util.RegexUtils;
+
+/**
+ * Linear scanner of tags
+ *
+ * <p>
+ * A tag is the prefix, the tag body and the first suffix after it, found
+ * with {@link String#indexOf(String, int)} in one pass over the text. The body
+ * (with the optional sign) is validated by {@link Configure#getGrammerRegex()},
+ * unless the regex is the general one, then the body is only required not to
+ * contain the prefix or line terminators.
+ * </p>
+ *
+ * @author Sayi
+ * @since 1.10.1
+ */
+public class TagScanner {
+
+    private final String prefix;
+    private final String suffix;
+    private final Pattern validator;
+    private final Pattern templatePattern;
+    private final Pattern gramerPattern;
+
+    /**
+     * @param prefix
+     * @param suffix
+     * @param validator the pattern which the whole body should match, null if
+     *                  the body is only required not to contain the prefix
+     */
+    public TagScanner(String prefix, String suffix, Pattern validator) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.validator = validator;
+        this.templatePattern = null;
+        this.gramerPattern = null;
+    }
+
+    private TagScanner(Pattern templatePattern, Pattern gramerPattern) {
+        this.prefix = null;
+        this.suffix = null;
+        this.validator = null;
+        this.templatePattern = templatePattern;
+        this.gramerPattern = gramerPattern;
+    }
+
+    /**
+     * Scanner of the tag syntax of config
+     *
+     * @param config
+     * @param signRegex regex of the optional sign chars
+     * @return
+     */
+    public static TagScanner of(Configure config, String signRegex) {
+        String prefix = config.getGramerPrefix();
+        String suffix = config.getGramerSuffix();
+        String grammerRegex = config.getGrammerRegex();
+        Pattern validator = RegexUtils.createGeneral(prefix, suffix).equals(grammerRegex) ? null
+                : Pattern.compile(signRegex + grammerRegex);
+        return new TagScanner(prefix, suffix, validator);
+    }
+
+    /**
+     * Scanner backed by the regular expressions
+     *
+     * @param templatePattern regex of the whole tag
+     * @param gramerPattern   regex of the prefix or suffix, null if the tag
+     *                        should not be stripped
+     * @return
+     */
+    public static TagScanner of(Pattern templatePattern, Pattern gramerPattern) {
+        return new TagScanner(templatePattern, gramerPattern);
+    }
+
+    /**
+     * Create a matcher to find the tags of text
+     *
+     * @param text
+     * @return
+     */
+    public TagMatcher matcher(String text) {
+        return null == templatePattern ? new TagMatcher(text) : new RegexTagMatcher(text);
+    }
+
+    /**
+     * Whether the whole text is a tag
+     *
+     * @param text
+     * @return the tag without prefix and suffix, null if the text is not a tag
+     */
+    public String match(String text) {
+        if (null == text) return null;
+        if (null != templatePattern) {
+            return templatePattern.matcher(text).matches() ? strip(text) : null;
+        }
+        int bodyEnd = text.length() - suffix.length();
+        if (bodyEnd < prefix.length() || !text.startsWith(prefix) || !text.endsWith(suffix)) return null;
+        if (null == validator && text.indexOf(suffix, prefix.length()) < bodyEnd) return null;
+        if (!validate(text, prefix.length(), bodyEnd)) return null;
+        return text.substring(prefix.length(), bodyEnd).trim();
+    }
+
+    boolean validate(String text, int bodyStart, int bodyEnd) {
+        if (null != validator) return validator.matcher(text).region(bodyStart, bodyEnd).matches();
+        int pos = text.indexOf(prefix, bodyStart);
+        if (pos >= 0 && pos + prefix.length() <= bodyEnd) return false;
+        // same as the dot of general regex
+        for (int i = bodyStart; i < bodyEnd; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') return false;
+        }
+        return true;
+    }
+
+    String strip(String text) {
+        return null == gramerPattern ? text : gramerPattern.matcher(text).replaceAll("").trim();
+    }
+
+    /**
+     * Find tags of text in order, the api is similar to {@link Matcher}
+     */
+    public class TagMatcher {
+
+        final String text;
+        int from;
+        int start = -1;
+        int end = -1;
+
+        TagMatcher(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Find the next tag
+         *
+         * @return true if found
+         */
+        public boolean find() {
+            int begin = text.indexOf(prefix, from);
+            while (begin >= 0) {
+                int bodyStart = begin + prefix.length();
+                int bodyEnd = text.indexOf(suffix, bodyStart);
+                if (bodyEnd < 0) break;
+                if (validate(text, bodyStart, bodyEnd)) {
+                    start = begin;
+                    end = bodyEnd + suffix.length();
+                    from = end;
+                    return true;
+                }
+                begin = text.indexOf(prefix, begin + 1);
+            }
+            start = end = -1;
+            from = text.length();
+            return false;
+        }
+
+        public int start() {
+            return start;
+        }
+
+        public int end() {
+            return end;
+        }
+
+        /**
+         * @return the tag with prefix and suffix
+         */
+        public String group() {
+            return text.substring(start, end);
+        }
+
+        /**
+         * @return the tag without prefix and suffix
+         */
+        public String tag() {
+            return text.substring(start + prefix.length(), end - suffix.length()).trim();
+        }
+    }
+
+    private class RegexTagMatcher extends TagMatcher {
+
+        private final Matcher matcher;
+
+        RegexTagMatcher(String text) {
+            super(text);
+            this.matcher = templatePattern.matcher(text);
+        }
+
+        @Override
+        public boolean find() {
+            if (matcher.find()) {
+                start = matcher.start();
+                end = matcher.end();
+                return true;
+            }
+            start = end = -1;
+            return false;
+        }
+
+        @Override
+        public String tag() {
+            return strip(group());
+        }
+    }
+
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.resolver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFEndnote;
+import org.apache.poi.xwpf.usermodel.XWPFFooter;
+import org.apache.poi.xwpf.usermodel.XWPFFootnote;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFPicture;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.exception.ResolverException;
+import com.deepoove.poi.template.BlockTemplate;
+import com.deepoove.poi.template.ChartTemplate;
+import com.deepoove.poi.template.ElementTemplate;
+import com.deepoove.poi.template.MetaTemplate;
+import com.deepoove.poi.template.PictureTemplate;
+import com.deepoove.poi.template.run.RunTemplate;
+import com.deepoove.poi.util.ReflectionUtils;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
+import com.deepoove.poi.xwpf.XWPFRunWrapper;
+import com.deepoove.poi.xwpf.XWPFTextboxContent;
+
+/**
+ * Compact index of the tag locations of a resolved document
+ *
+ * <p>
+ * Every tag is recorded in document order with its kind, the tag without
+ * prefix and suffix, and the path from the part to the run, the block nesting
+ * is rebuilt from the order of the tags. The index only matches the document
+ * whose runs has been refactored by the resolver, see
+ * {@link TemplateResolver#resolveDocument(XWPFDocument, TemplateIndex)}.
+ * </p>
+ * <p>
+ * The index of a block records the paths relative to the body elements of the
+ * block, it matches every copy of the block, see
+ * {@link TemplateResolver#resolveBodyElements(List, TemplateIndex)}.
+ * </p>
+ *
+ * @author Sayi
+ * @since 1.10.1
+ */
+public class TemplateIndex {
+
+    public static final byte KIND_RUN = 0;
+    public static final byte KIND_PICTURE = 1;
+    public static final byte KIND_CHART = 2;
+
+    static final int PART_BODY = 0;
+    static final int PART_HEADER = 1;
+    static final int PART_FOOTER = 2;
+    static final int PART_FOOTNOTE = 3;
+    static final int PART_ENDNOTE = 4;
+    static final int PART_COMMENT = 5;
+
+    static final int STEP_ELEMENT = 1;
+    static final int STEP_CELL = 2;
+    static final int STEP_RUN = 3;
+    static final int STEP_TEXTBOX = 4;
+    static final int STEP_PICTURE = 5;
+
+    private final List<Entry> entries;
+
+    TemplateIndex(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Create index of the resolved templates
+     *
+     * @param doc       the resolved document
+     * @param templates templates resolved by {@link Resolver#resolveDocument}
+     * @param config
+     * @return
+     * @throws ResolverException if the location of template cannot be recorded
+     */
+    public static TemplateIndex of(XWPFDocument doc, List<MetaTemplate> templates, Configure config) {
+        List<Entry> entries = new ArrayList<>();
+        collect(doc, templates, config, entries);
+        return new TemplateIndex(entries);
+    }
+
+    /**
+     * Create index of the templates of block, the textboxes are not supported
+     * because their refactored runs are not kept in the xml of block
+     *
+     * @param elements  the paragraphs and tables of block
+     * @param templates templates of the block
+     * @param config
+     * @return
+     * @throws ResolverException if the location of template cannot be recorded
+     */
+    public static TemplateIndex of(List<IBodyElement> elements, List<MetaTemplate> templates, Configure config) {
+        Map<IBodyElement, Integer> block = new IdentityHashMap<>();
+        for (int i = 0; i < elements.size(); i++) {
+            block.put(elements.get(i), i);
+        }
+        List<Entry> entries = new ArrayList<>();
+        collect(null, block, templates, config, entries);
+        return new TemplateIndex(entries);
+    }
+
+    private static void collect(XWPFDocument doc, List<MetaTemplate> templates, Configure config,
+            List<Entry> entries) {
+        collect(doc, null, templates, config, entries);
+    }
+
+    private static void collect(XWPFDocument doc, Map<IBodyElement, Integer> block, List<MetaTemplate> templates,
+            Configure config, List<Entry> entries) {
+        for (MetaTemplate template : templates) {
+            if (template instanceof BlockTemplate) {
+                BlockTemplate blockTemplate = (BlockTemplate) template;
+                entries.add(entryOf(doc, block, blockTemplate.getStartMark(), config));
+                collect(doc, block, blockTemplate.getTemplates(), config, entries);
+                entries.add(entryOf(doc, block, blockTemplate.getEndMark(), config));
+            } else if (template instanceof ElementTemplate) {
+                entries.add(entryOf(doc, block, (ElementTemplate) template, config));
+            } else {
+                throw new ResolverException("Unsupported template to index: " + template);
+            }
+        }
+    }
+
+    private static Entry entryOf(XWPFDocument doc, Map<IBodyElement, Integer> block, ElementTemplate template,
+            Configure config) {
+        String tag = tagOf(template, config);
+        if (template instanceof RunTemplate) {
+            return new Entry(KIND_RUN, tag, pathOf(doc, block, ((RunTemplate) template).getRun()));
+        } else if (template instanceof PictureTemplate) {
+            XWPFPicture picture = ((PictureTemplate) template).getPicture();
+            XWPFRun run = (XWPFRun) ReflectionUtils.getValue("run", picture);
+            int[] path = pathOf(doc, block, run);
+            int[] picturePath = new int[path.length + 2];
+            System.arraycopy(path, 0, picturePath, 0, path.length);
+            picturePath[path.length] = STEP_PICTURE;
+            picturePath[path.length + 1] = run.getEmbeddedPictures().indexOf(picture);
+            return new Entry(KIND_PICTURE, tag, picturePath);
+        } else if (template instanceof ChartTemplate) {
+            return new Entry(KIND_CHART, tag, pathOf(doc, block, ((ChartTemplate) template).getRun()));
+        }
+        throw new ResolverException("Unsupported template to index: " + template);
+    }
+
+    private static String tagOf(ElementTemplate template, Configure config) {
+        String source = template.getSource();
+        String prefix = config.getGramerPrefix();
+        String suffix = config.getGramerSuffix();
+        if (null != source && source.length() >= prefix.length() + suffix.length() && source.startsWith(prefix)
+                && source.endsWith(suffix)) {
+            return source.substring(prefix.length(), source.length() - suffix.length());
+        }
+        Character sign = template.getSign();
+        boolean noSign = null == sign || sign.charValue() == DefaultElementTemplateFactory.EMPTY_CHAR;
+        return noSign ? template.getTagName() : sign + template.getTagName();
+    }
+
+    private static int[] pathOf(XWPFDocument doc, Map<IBodyElement, Integer> block, XWPFRun run) {
+        LinkedList<Integer> path = new LinkedList<>();
+        XWPFParagraph paragraph = (XWPFParagraph) run.getParent();
+        addFirst(path, STEP_RUN, indexOf(paragraph.getRuns(), run));
+        IBodyElement element = paragraph;
+        IBody body = paragraph.getBody();
+        while (true) {
+            Integer blockPos = null == block ? null : block.get(element);
+            if (null != blockPos) {
+                addFirst(path, STEP_ELEMENT, blockPos);
+                break;
+            }
+            addFirst(path, STEP_ELEMENT, indexOf(body.getBodyElements(), element));
+            if (body instanceof XWPFTableCell) {
+                XWPFTableCell cell = (XWPFTableCell) body;
+                XWPFTableRow row = cell.getTableRow();
+                XWPFTable table = row.getTable();
+                addFirst(path, STEP_CELL, indexOf(table.getRows(), row), indexOf(row.getTableCells(), cell));
+                element = table;
+                body = table.getBody();
+            } else if (body instanceof XWPFTextboxContent) {
+                if (null != block) throw new ResolverException("Unsupported textbox in the block to index");
+                XWPFRun textboxRun = ((XWPFTextboxContent) body).getRun();
+                XWPFParagraph textboxParagraph = (XWPFParagraph) textboxRun.getParent();
+                addFirst(path, STEP_TEXTBOX);
+                addFirst(path, STEP_RUN, indexOf(textboxParagraph.getRuns(), textboxRun));
+                element = textboxParagraph;
+                body = textboxParagraph.getBody();
+            } else {
+                if (null != block) throw new ResolverException("Cannot locate the template in the block: " + run);
+                addFirst(path, partKind(doc, body), partIndex(doc, body));
+                break;
+            }
+        }
+        int[] ret = new int[path.size()];
+        int i = 0;
+        for (Integer value : path) {
+            ret[i++] = value;
+        }
+        return ret;
+    }
+
+    private static void addFirst(LinkedList<Integer> path, int... values) {
+        for (int i = values.length - 1; i >= 0; i--) {
+            path.addFirst(values[i]);
+        }
+    }
+
+    private static int indexOf(List<?> list, Object obj) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == obj) return i;
+        }
+        throw new ResolverException("Cannot locate the template element: " + obj);
+    }
+
+    private static int partKind(XWPFDocument doc, IBody body) {
+        if (body == doc) return PART_BODY;
+        if (body instanceof XWPFHeader) return PART_HEADER;
+        if (body instanceof XWPFFooter) return PART_FOOTER;
+        if (body instanceof XWPFFootnote) return PART_FOOTNOTE;
+        if (body instanceof XWPFEndnote) return PART_ENDNOTE;
+        if (doc instanceof NiceXWPFDocument && null != ((NiceXWPFDocument) doc).getAllComments()
+                && ((NiceXWPFDocument) doc).getAllComments().contains(body)) {
+            return PART_COMMENT;
+        }
+        throw new ResolverException("Unsupported body to index: " + body);
+    }
+
+    private static int partIndex(XWPFDocument doc, IBody body) {
+        switch (partKind(doc, body)) {
+        case PART_HEADER:
+            return indexOf(doc.getHeaderList(), body);
+        case PART_FOOTER:
+            return indexOf(doc.getFooterList(), body);
+        case PART_FOOTNOTE:
+            return indexOf(doc.getFootnotes(), body);
+        case PART_ENDNOTE:
+            return indexOf(doc.getEndnotes(), body);
+        case PART_COMMENT:
+            return indexOf(((NiceXWPFDocument) doc).getAllComments(), body);
+        default:
+            return 0;
+        }
+    }
+
+    /**
+     * Locate the run or picture of the entry
+     *
+     * @param doc
+     * @param entry
+     * @param textboxes the textbox of runs, shared by all entries of the document
+     * @return {@link XWPFRun} or {@link XWPFPicture}
+     */
+    Object locate(XWPFDocument doc, Entry entry, Map<XWPFRun, XWPFTextboxContent> textboxes) {
+        int[] path = entry.path;
+        try {
+            return locate(part(doc, path[0], path[1]), entry, 2, textboxes);
+        } catch (RuntimeException e) {
+            throw new ResolverException("Template index does not match the document, tag: " + entry.getTag(), e);
+        }
+    }
+
+    /**
+     * Locate the run or picture of the entry of block index
+     *
+     * @param elements the paragraphs and tables of the copy of block
+     * @param entry
+     * @return {@link XWPFRun} or {@link XWPFPicture}
+     */
+    Object locate(List<IBodyElement> elements, Entry entry) {
+        int[] path = entry.path;
+        try {
+            if (path[0] != STEP_ELEMENT) throw new IllegalStateException("Not the entry of block");
+            return locate(elements.get(path[1]), entry, 2, null);
+        } catch (RuntimeException e) {
+            throw new ResolverException("Template index does not match the block, tag: " + entry.getTag(), e);
+        }
+    }
+
+    private Object locate(Object start, Entry entry, int i, Map<XWPFRun, XWPFTextboxContent> textboxes) {
+        int[] path = entry.path;
+        IBody body = start instanceof IBody ? (IBody) start : null;
+        IBodyElement element = start instanceof IBodyElement ? (IBodyElement) start : null;
+        XWPFRun run = null;
+        while (i < path.length) {
+            switch (path[i++]) {
+            case STEP_ELEMENT:
+                element = body.getBodyElements().get(path[i++]);
+                break;
+            case STEP_CELL:
+                XWPFTableRow row = ((XWPFTable) element).getRow(path[i++]);
+                body = row.getTableCells().get(path[i++]);
+                break;
+            case STEP_RUN:
+                run = ((XWPFParagraph) element).getRuns().get(path[i++]);
+                break;
+            case STEP_TEXTBOX:
+                body = textboxes.computeIfAbsent(run, r -> new XWPFRunWrapper(r).getWpstxbx());
+                break;
+            case STEP_PICTURE:
+                return run.getEmbeddedPictures().get(path[i++]);
+            default:
+                throw new IllegalStateException("Unknown step " + path[i - 1]);
+            }
+        }
+        if (null == run) throw new IllegalStateException("No run in the path");
+        return run;
+    }
+
+    private IBody part(XWPFDocument doc, int kind, int index) {
+        switch (kind) {
+        case PART_BODY:
+            return doc;
+        case PART_HEADER:
+            return doc.getHeaderList().get(index);
+        case PART_FOOTER:
+            return doc.getFooterList().get(index);
+        case PART_FOOTNOTE:
+            return doc.getFootnotes().get(index);
+        case PART_ENDNOTE:
+            return doc.getEndnotes().get(index);
+        case PART_COMMENT:
+            return ((NiceXWPFDocument) doc).getAllComments().get(index);
+        default:
+            throw new IllegalStateException("Unknown part " + kind);
+        }
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(entries.size());
+        for (Entry entry : entries) {
+            out.writeByte(entry.kind);
+            out.writeUTF(entry.tag);
+            out.writeShort(entry.path.length);
+            for (int value : entry.path) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    public static TemplateIndex read(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            byte kind = in.readByte();
+            String tag = in.readUTF();
+            int[] path = new int[in.readShort()];
+            for (int j = 0; j < path.length; j++) {
+                path[j] = in.readInt();
+            }
+            entries.add(new Entry(kind, tag, path));
+        }
+        return new TemplateIndex(entries);
+    }
+
+    public static class Entry {
+        private final byte kind;
+        private final String tag;
+        private final int[] path;
+
+        Entry(byte kind, String tag, int[] path) {
+            this.kind = kind;
+            this.tag = tag;
+            this.path = path;
+        }
+
+        public byte getKind() {
+            return kind;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public int[] getPath() {
+            return path.clone();
+        }
+    }
+
+}
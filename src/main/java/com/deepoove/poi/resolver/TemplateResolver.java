@@ -18,8 +18,12 @@ package com.deepoove.poi.resolver;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -53,6 +57,7 @@ import com.deepoove.poi.util.ReflectionUtils;
 import com.deepoove.poi.xwpf.CTDrawingWrapper;
 import com.deepoove.poi.xwpf.NiceXWPFDocument;
 import com.deepoove.poi.xwpf.XWPFRunWrapper;
+import com.deepoove.poi.xwpf.XWPFTextboxContent;
 
 /**
  * Resolver
@@ -63,6 +68,9 @@ public class TemplateResolver extends AbstractResolver {
 
     private static Logger logger = LoggerFactory.getLogger(TemplateResolver.class);
 
+    private static final QName ALTERNATE_CONTENT = new QName(
+            "http://schemas.openxmlformats.org/markup-compatibility/2006", "AlternateContent");
+
     private ElementTemplateFactory elementTemplateFactory;
 
     public TemplateResolver(Configure config) {
@@ -91,6 +99,68 @@ public class TemplateResolver extends AbstractResolver {
         return metaTemplates;
     }
 
+    /**
+     * Resolve the document whose runs has been refactored by the tag locations
+     * of index, the text of runs is not parsed again.
+     * 
+     * @param doc
+     * @param index created by {@link TemplateIndex#of(XWPFDocument, List, Configure)}
+     * @return
+     */
+    public List<MetaTemplate> resolveDocument(XWPFDocument doc, TemplateIndex index) {
+        List<MetaTemplate> metaTemplates = new ArrayList<>();
+        if (null == doc) return metaTemplates;
+        logger.info("Resolve the document by index start...");
+        Deque<BlockTemplate> stack = new LinkedList<BlockTemplate>();
+        Map<XWPFRun, XWPFTextboxContent> textboxes = new HashMap<>();
+        for (TemplateIndex.Entry entry : index.getEntries()) {
+            resolveEntry(entry, index.locate(doc, entry, textboxes), metaTemplates, stack);
+        }
+        checkStack(stack);
+        logger.info("Resolve the document by index end, create {} MetaTemplates.", metaTemplates.size());
+        return metaTemplates;
+    }
+
+    /**
+     * Resolve the copy of block by the tag locations of index, the text of runs
+     * is not parsed again.
+     * 
+     * @param bodyElements the paragraphs and tables of the copy
+     * @param index        created by
+     *                     {@link TemplateIndex#of(List, List, Configure)}, null
+     *                     means resolving the body elements
+     * @return
+     */
+    @Override
+    public List<MetaTemplate> resolveBodyElements(List<IBodyElement> bodyElements, TemplateIndex index) {
+        if (null == index) return resolveBodyElements(bodyElements);
+        List<MetaTemplate> metaTemplates = new ArrayList<>();
+        Deque<BlockTemplate> stack = new LinkedList<BlockTemplate>();
+        for (TemplateIndex.Entry entry : index.getEntries()) {
+            resolveEntry(entry, index.locate(bodyElements, entry), metaTemplates, stack);
+        }
+        checkStack(stack);
+        return metaTemplates;
+    }
+
+    private void resolveEntry(TemplateIndex.Entry entry, Object obj, final List<MetaTemplate> metaTemplates,
+            final Deque<BlockTemplate> stack) {
+        if (entry.getKind() == TemplateIndex.KIND_RUN) {
+            RunTemplate runTemplate = elementTemplateFactory.createRunTemplate(config, entry.getTag(), (XWPFRun) obj);
+            resolveRunTemplate(runTemplate, metaTemplates, stack);
+        } else if (entry.getKind() == TemplateIndex.KIND_PICTURE) {
+            addNewMeta(metaTemplates, stack,
+                    elementTemplateFactory.createPicureTemplate(config, entry.getTag(), (XWPFPicture) obj));
+        } else if (entry.getKind() == TemplateIndex.KIND_CHART) {
+            XWPFRun run = (XWPFRun) obj;
+            CTDrawing ctDrawing = getCTDrawing(run);
+            XWPFChart chart = null == ctDrawing ? null : getXWPFChart(run, new CTDrawingWrapper(ctDrawing));
+            if (null == chart) throw new ResolverException("Cannot find the chart of tag: " + entry.getTag());
+            addNewMeta(metaTemplates, stack,
+                    elementTemplateFactory.createChartTemplate(config, entry.getTag(), chart, run));
+        }
+    }
+
     @Override
     public List<MetaTemplate> resolveBodyElements(List<IBodyElement> bodyElements) {
         List<MetaTemplate> metaTemplates = new ArrayList<>();
@@ -103,8 +173,10 @@ public class TemplateResolver extends AbstractResolver {
             if (element == null) continue;
             if (element.getElementType() == BodyElementType.PARAGRAPH) {
                 XWPFParagraph paragraph = (XWPFParagraph) element;
-                new RunningRunParagraph(paragraph, templatePattern).refactorRun();
-                resolveXWPFRuns(paragraph.getRuns(), metaTemplates, stack);
+                // skip the text runs of paragraph without any tag prefix
+                boolean textTemplate = paragraph.getParagraphText().contains(config.getGramerPrefix());
+                if (textTemplate) new RunningRunParagraph(paragraph, tagScanner).refactorRun();
+                resolveXWPFRuns(paragraph.getRuns(), metaTemplates, stack, textTemplate);
             } else if (element.getElementType() == BodyElementType.TABLE) {
                 XWPFTable table = (XWPFTable) element;
                 List<XWPFTableRow> rows = table.getRows();
@@ -129,13 +201,13 @@ public class TemplateResolver extends AbstractResolver {
         if (runs == null) return metaTemplates;
 
         Deque<BlockTemplate> stack = new LinkedList<BlockTemplate>();
-        resolveXWPFRuns(runs, metaTemplates, stack);
+        resolveXWPFRuns(runs, metaTemplates, stack, true);
         checkStack(stack);
         return metaTemplates;
     }
 
     private void resolveXWPFRuns(List<XWPFRun> runs, final List<MetaTemplate> metaTemplates,
-            final Deque<BlockTemplate> stack) {
+            final Deque<BlockTemplate> stack, boolean textTemplate) {
         for (XWPFRun run : runs) {
             String text = null;
             if (StringUtils.isBlank(text = run.getText(0))) {
@@ -159,29 +231,35 @@ public class TemplateResolver extends AbstractResolver {
                 }
                 continue;
             }
+            if (!textTemplate) continue;
             RunTemplate runTemplate = (RunTemplate) parseTemplateFactory(text, run, run);
             if (null == runTemplate) continue;
-            char charValue = runTemplate.getSign().charValue();
-            if (charValue == config.getIterable().getLeft()) {
-                IterableTemplate freshIterableTemplate = new IterableTemplate(runTemplate);
-                stack.push(freshIterableTemplate);
-            } else if (charValue == config.getIterable().getRight()) {
-                if (stack.isEmpty()) throw new ResolverException(
-                        "Mismatched start/end tags: No start mark found for end mark " + runTemplate);
-                BlockTemplate latestIterableTemplate = stack.pop();
-                if (StringUtils.isNotEmpty(runTemplate.getTagName())
-                        && !latestIterableTemplate.getStartMark().getTagName().equals(runTemplate.getTagName())) {
-                    throw new ResolverException("Mismatched start/end tags: start mark "
-                            + latestIterableTemplate.getStartMark() + " does not match to end mark " + runTemplate);
-                }
-                latestIterableTemplate.setEndMark(runTemplate);
-                if (latestIterableTemplate instanceof IterableTemplate) {
-                    latestIterableTemplate = ((IterableTemplate) latestIterableTemplate).buildIfInline();
-                }
-                addNewMeta(metaTemplates, stack, latestIterableTemplate);
-            } else {
-                addNewMeta(metaTemplates, stack, runTemplate);
+            resolveRunTemplate(runTemplate, metaTemplates, stack);
+        }
+    }
+
+    private void resolveRunTemplate(RunTemplate runTemplate, final List<MetaTemplate> metaTemplates,
+            final Deque<BlockTemplate> stack) {
+        char charValue = runTemplate.getSign().charValue();
+        if (charValue == config.getIterable().getLeft()) {
+            IterableTemplate freshIterableTemplate = new IterableTemplate(runTemplate);
+            stack.push(freshIterableTemplate);
+        } else if (charValue == config.getIterable().getRight()) {
+            if (stack.isEmpty()) throw new ResolverException(
+                    "Mismatched start/end tags: No start mark found for end mark " + runTemplate);
+            BlockTemplate latestIterableTemplate = stack.pop();
+            if (StringUtils.isNotEmpty(runTemplate.getTagName())
+                    && !latestIterableTemplate.getStartMark().getTagName().equals(runTemplate.getTagName())) {
+                throw new ResolverException("Mismatched start/end tags: start mark "
+                        + latestIterableTemplate.getStartMark() + " does not match to end mark " + runTemplate);
             }
+            latestIterableTemplate.setEndMark(runTemplate);
+            if (latestIterableTemplate instanceof IterableTemplate) {
+                latestIterableTemplate = ((IterableTemplate) latestIterableTemplate).buildIfInline();
+            }
+            addNewMeta(metaTemplates, stack, latestIterableTemplate);
+        } else {
+            addNewMeta(metaTemplates, stack, runTemplate);
         }
     }
 
@@ -189,13 +267,19 @@ public class TemplateResolver extends AbstractResolver {
         CTDrawing ctDrawing = getCTDrawing(run);
         if (null == ctDrawing) return null;
         CTDrawingWrapper wrapper = new CTDrawingWrapper(ctDrawing);
+        XWPFChart chart = getXWPFChart(run, wrapper);
+        if (null == chart) return null;
+        ElementTemplate template = parseTemplateFactory(wrapper.getTitle(), chart, run);
+        return null == template ? (ChartTemplate) parseTemplateFactory(wrapper.getDesc(), chart, run)
+                : (ChartTemplate) template;
+    }
+
+    private XWPFChart getXWPFChart(XWPFRun run, CTDrawingWrapper wrapper) {
         String rid = wrapper.getCharId();
         if (null == rid) return null;
         POIXMLDocumentPart documentPart = run.getDocument().getRelationById(rid);
         if (null == documentPart || !(documentPart instanceof XWPFChart)) return null;
-        ElementTemplate template = parseTemplateFactory(wrapper.getTitle(), (XWPFChart) documentPart, run);
-        return null == template ? (ChartTemplate) parseTemplateFactory(wrapper.getDesc(), (XWPFChart) documentPart, run)
-                : (ChartTemplate) template;
+        return (XWPFChart) documentPart;
     }
 
     private List<PictureTemplate> resolveXWPFPictures(List<XWPFPicture> embeddedPictures) {
@@ -251,6 +335,8 @@ public class TemplateResolver extends AbstractResolver {
     }
 
     private List<MetaTemplate> resolveTextbox(XWPFRun run) {
+        // textbox is always in the alternate content, avoid the xpath query of runs
+        if (run.getCTR().selectChildren(ALTERNATE_CONTENT).length == 0) return new ArrayList<>();
         XWPFRunWrapper runWrapper = new XWPFRunWrapper(run);
         if (null == runWrapper.getWpstxbx()) return new ArrayList<>();
         return resolveBodyElements(runWrapper.getWpstxbx().getBodyElements());
@@ -268,9 +354,9 @@ public class TemplateResolver extends AbstractResolver {
 
     ElementTemplate parseTemplateFactory(String text, Object obj, XWPFRun run) {
         if (null == text) return null;
-        if (templatePattern.matcher(text).matches()) {
+        String tag = tagScanner.match(text);
+        if (null != tag) {
             logger.debug("Resolve where text: {}, and create ElementTemplate for {}", text, obj.getClass());
-            String tag = gramerPattern.matcher(text).replaceAll("").trim();
             if (obj.getClass() == XWPFRun.class) {
                 return (RunTemplate) elementTemplateFactory.createRunTemplate(config, tag, (XWPFRun) obj);
             } else if (obj.getClass() == XWPFPicture.class) {
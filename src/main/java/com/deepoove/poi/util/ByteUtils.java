@@ -21,8 +21,11 @@ import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.poi.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -144,4 +147,18 @@ public final class ByteUtils {
         }
         return true;
     }
+
+    /**
+     * SHA-256 digest of the bytes as hex string
+     * 
+     * @param bytes
+     * @return
+     */
+    public static String sha256Hex(byte[] bytes) {
+        try {
+            return Hex.encodeHexString(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
 }
@@ -46,6 +46,37 @@ public class ReflectionUtils {
         }
     }
 
+    /**
+     * Find the field and make it accessible, the field can be cached and read
+     * by {@link #getValue(Field, Object)}
+     * 
+     * @param clazz
+     * @param name
+     * @return
+     */
+    public static Field findAccessibleField(Class<?> clazz, String name) {
+        Field field = findField(clazz, name);
+        if (null == field) {
+            throw new ReflectionException(
+                    "No Such field " + name + " from class" + ClassUtils.getShortClassName(clazz));
+        }
+        try {
+            field.setAccessible(true);
+        } catch (Exception e) {
+            throw new ReflectionException(name, clazz, e);
+        }
+        return field;
+    }
+
+    public static Object getValue(Field field, Object obj) {
+        Objects.requireNonNull(obj, "Class must not be null");
+        try {
+            return field.get(obj);
+        } catch (Exception e) {
+            throw new ReflectionException(field.getName(), obj.getClass(), e);
+        }
+    }
+
     public static Field findField(Class<?> clazz, String name) {
         Objects.requireNonNull(clazz, "Class must not be null");
         Objects.requireNonNull(name, "Name must not be null");
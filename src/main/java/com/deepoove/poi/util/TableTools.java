@@ -85,13 +85,15 @@ public final class TableTools {
      */
     public static void mergeCellsHorizontalWithoutRemove(XWPFTable table, int row, int fromCol, int toCol) {
         Preconditions.requireGreaterThan(toCol, fromCol, "To column to be merged must greater than from column.");
-        XWPFTableCell cell = table.getRow(row).getCell(fromCol);
+        // XWPFTable#getRow and XWPFTableRow#getCell count the xml elements, read the lists instead
+        List<XWPFTableCell> cells = table.getRows().get(row).getTableCells();
+        XWPFTableCell cell = cells.get(fromCol);
         CTTcPr tcPr = getTcPr(cell);
         tcPr.addNewGridSpan();
         tcPr.getGridSpan().setVal(BigInteger.valueOf((long) (toCol - fromCol + 1)));
         int tcw = 0;
         for (int colIndex = fromCol; colIndex <= toCol; colIndex++) {
-            XWPFTableCell tableCell = table.getRow(row).getCell(colIndex);
+            XWPFTableCell tableCell = cells.get(colIndex);
             // TODO pct, auto
             if (TableWidthType.DXA == tableCell.getWidthType()) {
                 if (-1 == tableCell.getWidth()) return;
@@ -113,8 +115,9 @@ public final class TableTools {
      */
     public static void mergeCellsVertically(XWPFTable table, int col, int fromRow, int toRow) {
         Preconditions.requireGreaterThan(toRow, fromRow, "To row to be merged must greater than from row.");
+        List<XWPFTableRow> rows = table.getRows();
         for (int rowIndex = fromRow; rowIndex <= toRow; rowIndex++) {
-            XWPFTableCell cell = table.getRow(rowIndex).getCell(col);
+            XWPFTableCell cell = rows.get(rowIndex).getTableCells().get(col);
             CTTcPr tcPr = getTcPr(cell);
             CTVMerge vMerge = tcPr.addNewVMerge();
             if (rowIndex == fromRow) {
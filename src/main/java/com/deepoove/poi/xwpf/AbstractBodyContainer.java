@@ -0,0 +1,208 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.xwpf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.BodyElementType;
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+
+import com.deepoove.poi.util.ReflectionUtils;
+
+/**
+ * Container with the optional {@link BodyPositionIndex}
+ * 
+ * @author Sayi
+ * @since 1.10.1
+ */
+public abstract class AbstractBodyContainer implements BodyContainer {
+
+    protected BodyPositionIndex positionIndex;
+    private List<IBodyElement> bodyElements;
+    private List<XWPFParagraph> paragraphs;
+    private List<XWPFTable> tables;
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void enablePositionIndex() {
+        if (null != positionIndex) return;
+        IBody target = getTarget();
+        bodyElements = getBodyElements();
+        positionIndex = new BodyPositionIndex(bodyElements, target.getParagraphs(), target.getTables());
+        // the lists to insert into, the copies are inserted by poi if not found
+        if (null != ReflectionUtils.findField(target.getClass(), "paragraphs")) {
+            paragraphs = (List<XWPFParagraph>) ReflectionUtils.getValue("paragraphs", target);
+        }
+        if (null != target.getTables() && null != ReflectionUtils.findField(target.getClass(), "tables")) {
+            tables = (List<XWPFTable>) ReflectionUtils.getValue("tables", target);
+        }
+    }
+
+    @Override
+    public void removeBodyElement(int pos) {
+        if (null != positionIndex) positionIndex.removed(pos);
+        removeElement(pos);
+    }
+
+    /**
+     * remove the element at position of body elements
+     * 
+     * @param pos
+     */
+    protected abstract void removeElement(int pos);
+
+    @Override
+    public int getPosOfParagraphCTP(CTP ctp) {
+        if (null == positionIndex) return BodyContainer.super.getPosOfParagraphCTP(ctp);
+        IBodyElement element = positionIndex.getElement(ctp);
+        return element instanceof XWPFParagraph ? positionIndex.getPosOfElement(element) : -1;
+    }
+
+    @Override
+    public int getPosOfElement(IBodyElement element) {
+        if (null == positionIndex) return BodyContainer.super.getPosOfElement(element);
+        return positionIndex.getPosOfElement(element);
+    }
+
+    @Override
+    public int getParaPos(XWPFParagraph paragraph) {
+        if (null == positionIndex) return BodyContainer.super.getParaPos(paragraph);
+        return positionIndex.getParaPos(paragraph);
+    }
+
+    @Override
+    public int getTablePos(XWPFTable table) {
+        if (null == positionIndex) return BodyContainer.super.getTablePos(table);
+        return positionIndex.getTablePos(table);
+    }
+
+    @Override
+    public void updateBodyElements(IBodyElement bodyElement, IBodyElement copy) {
+        if (null == positionIndex) {
+            BodyContainer.super.updateBodyElements(bodyElement, copy);
+            return;
+        }
+        int pos = positionIndex.getPosOfElement(bodyElement);
+        if (-1 == pos) return;
+        bodyElements.set(pos, copy);
+        positionIndex.replaced(bodyElement, copy, pos);
+    }
+
+    @Override
+    public XWPFParagraph insertParagraphCopy(XmlCursor cursor, CTP ctp) {
+        IBodyElement next = null == positionIndex || null == paragraphs ? null
+                : positionIndex.getElement(cursor.getObject());
+        if (null == next) return BodyContainer.super.insertParagraphCopy(cursor, ctp);
+        int bodyPos = positionIndex.getPosOfElement(next);
+        int paraPos = positionIndex.getPosOfType(bodyPos, BodyElementType.PARAGRAPH);
+
+        cursor.beginElement("p", CTP.type.getName().getNamespaceURI());
+        cursor.toParent();
+        CTP insert = (CTP) cursor.getObject();
+        insert.set(ctp);
+        XWPFParagraph copy = new XWPFParagraph(insert, getTarget());
+        paragraphs.add(paraPos, copy);
+        bodyElements.add(bodyPos, copy);
+        positionIndex.inserted(copy, bodyPos, paraPos);
+        cursor.toEndToken();
+        return copy;
+    }
+
+    @Override
+    public XWPFTable insertTableCopy(XmlCursor cursor, CTTbl ctTbl) {
+        IBodyElement next = null == positionIndex || null == tables ? null
+                : positionIndex.getElement(cursor.getObject());
+        if (null == next) return BodyContainer.super.insertTableCopy(cursor, ctTbl);
+        int bodyPos = positionIndex.getPosOfElement(next);
+        int tablePos = positionIndex.getPosOfType(bodyPos, BodyElementType.TABLE);
+
+        cursor.beginElement("tbl", CTTbl.type.getName().getNamespaceURI());
+        cursor.toParent();
+        CTTbl insert = (CTTbl) cursor.getObject();
+        insert.set(ctTbl);
+        XWPFTable copy = new XWPFTable(insert, getTarget());
+        tables.add(tablePos, copy);
+        bodyElements.add(bodyPos, copy);
+        positionIndex.inserted(copy, bodyPos, tablePos);
+        cursor.toEndToken();
+        return copy;
+    }
+
+    @Override
+    public List<IBodyElement> insertCopies(XmlObject next, List<IBodyElement> elements, int times) {
+        IBodyElement nextElement = null == positionIndex || null == paragraphs ? null : positionIndex.getElement(next);
+        boolean hasTable = elements.stream().anyMatch(e -> e instanceof XWPFTable);
+        if (null == nextElement || (hasTable && null == tables) || times <= 0) {
+            return BodyContainer.super.insertCopies(next, elements, times);
+        }
+        int bodyPos = positionIndex.getPosOfElement(nextElement);
+        int paraPos = positionIndex.getPosOfType(bodyPos, BodyElementType.PARAGRAPH);
+        int tablePos = hasTable ? positionIndex.getPosOfType(bodyPos, BodyElementType.TABLE) : -1;
+
+        // copy the xml in one sweep, the cursor stays in front of the next element
+        List<XmlObject> sources = new ArrayList<XmlObject>(elements.size());
+        for (IBodyElement element : elements) {
+            if (element instanceof XWPFParagraph) sources.add(((XWPFParagraph) element).getCTP());
+            else if (element instanceof XWPFTable) sources.add(((XWPFTable) element).getCTTbl());
+        }
+        XmlCursor toHere = next.newCursor();
+        for (int i = 0; i < times; i++) {
+            for (XmlObject source : sources) {
+                XmlCursor from = source.newCursor();
+                from.copyXml(toHere);
+                from.dispose();
+            }
+        }
+        int count = sources.size() * times;
+        for (int i = 0; i < count; i++) {
+            toHere.toPrevSibling();
+        }
+
+        // wrap the copies and add them to the body at once
+        List<IBodyElement> copies = new ArrayList<IBodyElement>(count);
+        List<XWPFParagraph> paragraphCopies = new ArrayList<XWPFParagraph>();
+        List<XWPFTable> tableCopies = new ArrayList<XWPFTable>();
+        for (int i = 0; i < count; i++) {
+            XmlObject object = toHere.getObject();
+            if (object instanceof CTP) {
+                XWPFParagraph copy = new XWPFParagraph((CTP) object, getTarget());
+                positionIndex.inserted(copy, bodyPos + i, paraPos + paragraphCopies.size());
+                paragraphCopies.add(copy);
+                copies.add(copy);
+            } else {
+                XWPFTable copy = new XWPFTable((CTTbl) object, getTarget());
+                positionIndex.inserted(copy, bodyPos + i, tablePos + tableCopies.size());
+                tableCopies.add(copy);
+                copies.add(copy);
+            }
+            toHere.toNextSibling();
+        }
+        toHere.dispose();
+        bodyElements.addAll(bodyPos, copies);
+        paragraphs.addAll(paraPos, paragraphCopies);
+        if (!tableCopies.isEmpty()) tables.addAll(tablePos, tableCopies);
+        return copies;
+    }
+
+}
@@ -16,6 +16,7 @@
 
 package com.deepoove.poi.xwpf;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.poi.xwpf.usermodel.BodyElementType;
@@ -26,7 +27,9 @@ import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
 
 import com.deepoove.poi.util.ParagraphUtils;
 import com.deepoove.poi.util.ReflectionUtils;
@@ -39,6 +42,14 @@ import com.deepoove.poi.util.ReflectionUtils;
  */
 public interface BodyContainer extends ParentContext {
 
+    /**
+     * Index the positions of body elements, the positions are not scanned
+     * again after inserting and removing elements. It's optional, the
+     * containers of poi-tl support it.
+     */
+    default void enablePositionIndex() {
+    }
+
     /**
      * get the position of paragraph in bodyElements
      * 
@@ -69,6 +80,16 @@ public interface BodyContainer extends ParentContext {
         return getPosOfParagraphCTP(paragraph.getCTP());
     }
 
+    /**
+     * get the position of paragraph or table in bodyElements
+     * 
+     * @param element
+     * @return the position of element
+     */
+    default int getPosOfElement(IBodyElement element) {
+        return getBodyElements().indexOf(element);
+    }
+
     /**
      * get all bodyElements
      * 
@@ -107,6 +128,23 @@ public interface BodyContainer extends ParentContext {
         return insertNewParagraph(cursor);
     }
 
+    /**
+     * insert the copy of paragraph at position of the cursor
+     * 
+     * @param insertPostionCursor
+     * @param ctp                 the paragraph to copy
+     * @return the inserted paragraph
+     */
+    default XWPFParagraph insertParagraphCopy(XmlCursor insertPostionCursor, CTP ctp) {
+        XWPFParagraph insertNewParagraph = insertNewParagraph(insertPostionCursor);
+        int paraPos = getParaPos(insertNewParagraph);
+        insertNewParagraph.getCTP().set(ctp);
+        XWPFParagraph copy = new XWPFParagraph(insertNewParagraph.getCTP(), getTarget());
+        updateBodyElements(insertNewParagraph, copy);
+        setParagraph(copy, paraPos);
+        return copy;
+    }
+
     /**
      * get the position of paragraph in paragraphs
      * 
@@ -148,6 +186,48 @@ public interface BodyContainer extends ParentContext {
         return getTarget().insertNewTbl(insertPostionCursor);
     }
 
+    /**
+     * insert the copy of table at position of the cursor
+     * 
+     * @param insertPostionCursor
+     * @param ctTbl               the table to copy
+     * @return the inserted table
+     */
+    default XWPFTable insertTableCopy(XmlCursor insertPostionCursor, CTTbl ctTbl) {
+        XWPFTable insertNewTbl = insertNewTbl(insertPostionCursor);
+        int tablePos = getTablePos(insertNewTbl);
+        insertNewTbl.getCTTbl().set(ctTbl);
+        XWPFTable copy = new XWPFTable(insertNewTbl.getCTTbl(), getTarget());
+        updateBodyElements(insertNewTbl, copy);
+        setTable(tablePos, copy);
+        return copy;
+    }
+
+    /**
+     * insert the copies of elements before the next element, the elements are
+     * copied in order the times
+     * 
+     * @param next     the paragraph or table behind the copies
+     * @param elements paragraphs or tables to copy
+     * @param times
+     * @return the inserted copies in order
+     */
+    default List<IBodyElement> insertCopies(XmlObject next, List<IBodyElement> elements, int times) {
+        List<IBodyElement> copies = new ArrayList<IBodyElement>(elements.size() * times);
+        for (int i = 0; i < times; i++) {
+            for (IBodyElement element : elements) {
+                XmlCursor insertPostionCursor = next.newCursor();
+                if (element instanceof XWPFParagraph) {
+                    copies.add(insertParagraphCopy(insertPostionCursor, ((XWPFParagraph) element).getCTP()));
+                } else if (element instanceof XWPFTable) {
+                    copies.add(insertTableCopy(insertPostionCursor, ((XWPFTable) element).getCTTbl()));
+                }
+                insertPostionCursor.dispose();
+            }
+        }
+        return copies;
+    }
+
     /**
      * get the position of table in tables
      * 
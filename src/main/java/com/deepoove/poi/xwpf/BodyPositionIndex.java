@@ -0,0 +1,216 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.xwpf;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.BodyElementType;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlObject;
+
+/**
+ * Positions of the paragraphs and tables of a body
+ *
+ * <p>
+ * The last known position of each element is kept as a hint, a lookup checks
+ * the hint first and then searches outward from it. Inserting or removing
+ * elements only moves the elements behind by a few positions, so the
+ * positions stay cheap to find across changes, even changes not made through
+ * the index.
+ * </p>
+ *
+ * @author Sayi
+ * @since 1.10.1
+ */
+public class BodyPositionIndex {
+
+    private final List<IBodyElement> bodyElements;
+    private final List<XWPFParagraph> paragraphs;
+    private final List<XWPFTable> tables;
+
+    private final Map<Object, Integer> elementHints = new IdentityHashMap<>();
+    private final Map<Object, Integer> paragraphHints = new IdentityHashMap<>();
+    private final Map<Object, Integer> tableHints = new IdentityHashMap<>();
+    private final Map<XmlObject, IBodyElement> elements = new IdentityHashMap<>();
+
+    /**
+     * @param bodyElements
+     * @param paragraphs
+     * @param tables       null if the body has no tables
+     */
+    public BodyPositionIndex(List<IBodyElement> bodyElements, List<XWPFParagraph> paragraphs,
+            List<XWPFTable> tables) {
+        this.bodyElements = bodyElements;
+        this.paragraphs = paragraphs;
+        this.tables = tables;
+    }
+
+    public int getPosOfElement(IBodyElement element) {
+        return find(bodyElements, elementHints, element);
+    }
+
+    public int getParaPos(XWPFParagraph paragraph) {
+        return find(paragraphs, paragraphHints, paragraph);
+    }
+
+    public int getTablePos(XWPFTable table) {
+        return null == tables ? -1 : find(tables, tableHints, table);
+    }
+
+    /**
+     * The paragraph or table of the xml object
+     *
+     * @param object {@link org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP}
+     *               or
+     *               {@link org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl}
+     * @return null if the object is not a paragraph or table of the body
+     */
+    public IBodyElement getElement(XmlObject object) {
+        if (null == object) return null;
+        IBodyElement element = elements.get(object);
+        if (null == element || getPosOfElement(element) < 0 || xmlOf(element) != object) {
+            reindex();
+            element = elements.get(object);
+        }
+        return element;
+    }
+
+    /**
+     * The position in paragraphs or tables for the element of type inserted at
+     * the position of body elements
+     *
+     * @param bodyPos
+     * @param type    paragraph or table
+     * @return
+     */
+    public int getPosOfType(int bodyPos, BodyElementType type) {
+        if (bodyPos < bodyElements.size()) {
+            IBodyElement element = bodyElements.get(bodyPos);
+            if (element.getElementType() == type) return typePos(element);
+        }
+        // the next one of type is behind the previous one
+        for (int i = bodyPos - 1; i >= 0; i--) {
+            IBodyElement element = bodyElements.get(i);
+            if (element.getElementType() == type) return typePos(element) + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Record the element inserted at the positions
+     *
+     * @param element
+     * @param bodyPos position in body elements
+     * @param pos     position in paragraphs or tables
+     */
+    public void inserted(IBodyElement element, int bodyPos, int pos) {
+        elementHints.put(element, bodyPos);
+        if (element instanceof XWPFParagraph) paragraphHints.put(element, pos);
+        else if (element instanceof XWPFTable) tableHints.put(element, pos);
+        XmlObject xml = xmlOf(element);
+        if (null != xml) elements.put(xml, element);
+    }
+
+    /**
+     * Record the element replaced by copy at the position of body elements
+     *
+     * @param element
+     * @param copy
+     * @param bodyPos
+     */
+    public void replaced(IBodyElement element, IBodyElement copy, int bodyPos) {
+        Integer pos = element instanceof XWPFParagraph ? paragraphHints.remove(element)
+                : tableHints.remove(element);
+        elementHints.remove(element);
+        elements.remove(xmlOf(element));
+        inserted(copy, bodyPos, null == pos ? -1 : pos);
+    }
+
+    /**
+     * Forget the element to be removed at the position of body elements, the
+     * elements behind are found from their hints
+     *
+     * @param bodyPos
+     */
+    public void removed(int bodyPos) {
+        if (bodyPos < 0 || bodyPos >= bodyElements.size()) return;
+        IBodyElement element = bodyElements.get(bodyPos);
+        elementHints.remove(element);
+        paragraphHints.remove(element);
+        tableHints.remove(element);
+        XmlObject xml = xmlOf(element);
+        if (null != xml && elements.get(xml) == element) elements.remove(xml);
+    }
+
+    private int typePos(IBodyElement element) {
+        return element instanceof XWPFParagraph ? getParaPos((XWPFParagraph) element)
+                : getTablePos((XWPFTable) element);
+    }
+
+    private void reindex() {
+        elements.clear();
+        for (int i = 0; i < bodyElements.size(); i++) {
+            IBodyElement element = bodyElements.get(i);
+            elementHints.put(element, i);
+            XmlObject xml = xmlOf(element);
+            if (null != xml) elements.put(xml, element);
+        }
+    }
+
+    private static XmlObject xmlOf(IBodyElement element) {
+        if (element instanceof XWPFParagraph) return ((XWPFParagraph) element).getCTP();
+        if (element instanceof XWPFTable) return ((XWPFTable) element).getCTTbl();
+        return null;
+    }
+
+    private static int find(List<?> list, Map<Object, Integer> hints, Object element) {
+        int size = list.size();
+        Integer hint = hints.get(element);
+        if (null == hint) {
+            // index all the elements once
+            int pos = -1;
+            for (int i = 0; i < size; i++) {
+                Object current = list.get(i);
+                hints.put(current, i);
+                if (current == element && pos < 0) pos = i;
+            }
+            return pos;
+        }
+        if (0 == size) {
+            hints.remove(element);
+            return -1;
+        }
+        // search outward from the hint
+        int start = Math.max(0, Math.min(hint, size - 1));
+        for (int d = 0; start - d >= 0 || start + d < size; d++) {
+            if (start + d < size && list.get(start + d) == element) {
+                hints.put(element, start + d);
+                return start + d;
+            }
+            if (d > 0 && start - d >= 0 && list.get(start - d) == element) {
+                hints.put(element, start - d);
+                return start - d;
+            }
+        }
+        hints.remove(element);
+        return -1;
+    }
+
+}
@@ -33,7 +33,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
 import com.deepoove.poi.util.ParagraphUtils;
 import com.deepoove.poi.util.ReflectionUtils;
 
-public class CellBodyContainer implements BodyContainer {
+public class CellBodyContainer extends AbstractBodyContainer {
 
     private XWPFTableCell cell;
 
@@ -43,7 +43,7 @@ public class CellBodyContainer implements BodyContainer {
 
     @SuppressWarnings("unchecked")
     @Override
-    public void removeBodyElement(int pos) {
+    protected void removeElement(int pos) {
         // TODO remove Nest Table
         List<IBodyElement> bodyElements = getBodyElements();
         if (pos >= 0 && pos < bodyElements.size()) {
@@ -31,7 +31,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTComment;
 import com.deepoove.poi.plugin.comment.XWPFComment;
 import com.deepoove.poi.util.ReflectionUtils;
 
-public class CommentBodyContainer implements BodyContainer {
+public class CommentBodyContainer extends AbstractBodyContainer {
 
     private XWPFComment comment;
 
@@ -40,7 +40,7 @@ public class CommentBodyContainer implements BodyContainer {
     }
 
     @Override
-    public void removeBodyElement(int pos) {
+    protected void removeElement(int pos) {
         List<IBodyElement> bodyElements = getBodyElements();
         if (pos >= 0 && pos < bodyElements.size()) {
             BodyElementType type = bodyElements.get(pos).getElementType();
@@ -29,7 +29,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
 
-public class DocumentBodyContainer implements BodyContainer {
+public class DocumentBodyContainer extends AbstractBodyContainer {
 
     private NiceXWPFDocument doc;
 
@@ -38,7 +38,7 @@ public class DocumentBodyContainer implements BodyContainer {
     }
 
     @Override
-    public void removeBodyElement(int i) {
+    protected void removeElement(int i) {
         doc.removeBodyElement(i);
     }
 
@@ -37,7 +37,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
 
 import com.deepoove.poi.util.ReflectionUtils;
 
-public class HeaderFooterBodyContainer implements BodyContainer {
+public class HeaderFooterBodyContainer extends AbstractBodyContainer {
 
     private XWPFHeaderFooter headerFooter;
 
@@ -46,7 +46,7 @@ public class HeaderFooterBodyContainer implements BodyContainer {
     }
 
     @Override
-    public void removeBodyElement(int pos) {
+    protected void removeElement(int pos) {
         List<IBodyElement> bodyElements = getBodyElements();
         if (pos >= 0 && pos < bodyElements.size()) {
             BodyElementType type = bodyElements.get(pos).getElementType();
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-2020 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.xwpf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFPictureData;
+
+import com.deepoove.poi.util.ByteUtils;
+
+/**
+ * Pictures of the document keyed by the SHA-256 of the content
+ *
+ * <p>
+ * The same image added many times reuses one package part, it is found by the
+ * digest without comparing the bytes. The registry is not thread safe, same as
+ * the document.
+ * </p>
+ *
+ * @author Sayi
+ * @since 1.10.1
+ */
+public class MediaRegistry {
+
+    private final Map<String, XWPFPictureData> pictures = new HashMap<String, XWPFPictureData>();
+    private long hitCount;
+    private long savedBytes;
+
+    /**
+     * the content address of the picture
+     *
+     * @param data
+     * @return
+     */
+    public static String digest(byte[] data) {
+        return ByteUtils.sha256Hex(data);
+    }
+
+    /**
+     * Find the registered picture, the reuse is recorded
+     *
+     * @param digest the {@link #digest(byte[])} of data
+     * @param data
+     * @return null if not registered
+     */
+    public XWPFPictureData find(String digest, byte[] data) {
+        XWPFPictureData pictureData = pictures.get(digest);
+        if (null != pictureData) {
+            hitCount++;
+            savedBytes += data.length;
+        }
+        return pictureData;
+    }
+
+    public void register(String digest, XWPFPictureData pictureData) {
+        if (null != pictureData) pictures.put(digest, pictureData);
+    }
+
+    public int size() {
+        return pictures.size();
+    }
+
+    /**
+     * @return the number of pictures reused
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the bytes of pictures reused instead of stored again
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "MediaRegistry [size=" + size() + ", hitCount=" + hitCount + ", savedBytes=" + savedBytes + "]";
+    }
+
+}
@@ -28,26 +28,32 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.ooxml.POIXMLException;
 import org.apache.poi.ooxml.POIXMLRelation;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.xwpf.usermodel.IBody;
 import org.apache.poi.xwpf.usermodel.XWPFAbstractNum;
 import org.apache.poi.xwpf.usermodel.XWPFChart;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFFactory;
+import org.apache.poi.xwpf.usermodel.XWPFHyperlink;
 import org.apache.poi.xwpf.usermodel.XWPFNumbering;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFPicture;
 import org.apache.poi.xwpf.usermodel.XWPFPictureData;
 import org.apache.poi.xwpf.usermodel.XWPFRelation;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFSDT;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlException;
 import org.apache.xmlbeans.XmlObject;
 import org.openxmlformats.schemas.drawingml.x2006.chart.CTChartSpace;
@@ -58,8 +64,11 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocument1;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDrawing;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTInd;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTLvl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSdtBlock;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CommentsDocument;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STJc;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STNumberFormat;
@@ -89,6 +98,7 @@ public class NiceXWPFDocument extends XWPFDocument {
     protected List<XWPFPicture> allPictures = new ArrayList<XWPFPicture>();
     protected IdenifierManagerWrapper idenifierManagerWrapper;
     protected boolean adjustDoc = false;
+    protected MediaRegistry mediaRegistry = new MediaRegistry();
 
     protected Map<XWPFChart, PackagePart> chartMappingPart = new HashMap<>();
     protected static XWPFRelation COMMENTS;
@@ -192,6 +202,10 @@ public class NiceXWPFDocument extends XWPFDocument {
         return idenifierManagerWrapper;
     }
 
+    public MediaRegistry getMediaRegistry() {
+        return mediaRegistry;
+    }
+
     public BigInteger addNewNumberingId(NumberingFormat numFmt) {
         return addNewMultiLevelNumberingId(numFmt);
     }
@@ -275,15 +289,121 @@ public class NiceXWPFDocument extends XWPFDocument {
     }
 
     public NiceXWPFDocument merge(Iterator<NiceXWPFDocument> iterator, XWPFRun run) throws Exception {
-        XWPFRun newRun = run;
+        return new XmlXWPFDocumentMerge().merge(this, iterator, locateMerge(run));
+    }
+
+    /**
+     * Merge documents at the location of run without rebuilding, the
+     * paragraphs and tables of the body are kept, {@link #rebuild()} should be
+     * called once after all merges.
+     * 
+     * @param iterator
+     * @param run
+     * @throws Exception
+     */
+    public void mergeInPlace(Iterator<NiceXWPFDocument> iterator, XWPFRun run) throws Exception {
+        mergeInPlace(iterator, run, null);
+    }
+
+    /**
+     * Merge documents at the location of run without rebuilding, the merged
+     * documents are prepared in parallel by the executor
+     * 
+     * @param iterator
+     * @param run
+     * @param executor null means the current thread
+     * @throws Exception
+     */
+    public void mergeInPlace(Iterator<NiceXWPFDocument> iterator, XWPFRun run, Executor executor) throws Exception {
+        mergeInPlace(iterator, run, executor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Merge documents at the location of run without rebuilding, at most
+     * parallelism documents are prepared by the executor at the same time
+     * 
+     * @param iterator
+     * @param run
+     * @param executor    null means the current thread
+     * @param parallelism
+     * @throws Exception
+     */
+    public void mergeInPlace(Iterator<NiceXWPFDocument> iterator, XWPFRun run, Executor executor, int parallelism)
+            throws Exception {
+        new XmlXWPFDocumentMerge(executor, parallelism).mergeInPlace(this, iterator, locateMerge(run));
+    }
+
+    private XWPFRun locateMerge(XWPFRun run) {
         String paragraphText = ParagraphUtils.trimLine((XWPFParagraph) run.getParent());
         boolean havePictures = ParagraphUtils.havePictures((XWPFParagraph) run.getParent());
         if (!ParagraphUtils.trimLine(run.text()).equals(paragraphText) || havePictures) {
             BodyContainer container = BodyContainerFactory.getBodyContainer(run);
             XWPFParagraph paragraph = container.insertNewParagraph(run);
-            newRun = paragraph.createRun();
+            return paragraph.createRun();
         }
-        return new XmlXWPFDocumentMerge().merge(this, iterator, newRun);
+        return run;
+    }
+
+    /**
+     * Rebuild the elements of body, headers and footers from the xml in place,
+     * instead of {@link #generate()} which writes and parses the whole package.
+     * The identifiers of drawings are kept.
+     */
+    public void rebuild() {
+        rebuild(false);
+    }
+
+    /**
+     * Rebuild the elements of body, headers and footers from the xml replaced
+     * in place, the identifiers of drawings are reserved as if the xml were read
+     * from the package.
+     */
+    public void reload() {
+        rebuild(true);
+    }
+
+    private void rebuild(boolean reserveId) {
+        bodyElements.clear();
+        paragraphs.clear();
+        tables.clear();
+        contentControls.clear();
+        XmlCursor cursor = getDocument().getBody().newCursor();
+        cursor.selectPath("./*");
+        while (cursor.toNextSelection()) {
+            XmlObject o = cursor.getObject();
+            if (o instanceof CTP) {
+                XWPFParagraph p = new XWPFParagraph((CTP) o, this);
+                bodyElements.add(p);
+                paragraphs.add(p);
+            } else if (o instanceof CTTbl) {
+                XWPFTable t = new XWPFTable((CTTbl) o, this);
+                bodyElements.add(t);
+                tables.add(t);
+            } else if (o instanceof CTSdtBlock) {
+                XWPFSDT c = new XWPFSDT((CTSdtBlock) o, this);
+                bodyElements.add(c);
+                contentControls.add(c);
+            }
+        }
+        cursor.dispose();
+        getHeaderList().forEach(header -> header.setHeaderFooter(header._getHdrFtr()));
+        getFooterList().forEach(footer -> footer.setHeaderFooter(footer._getHdrFtr()));
+
+        hyperlinks.clear();
+        try {
+            for (PackageRelationship rel : getPackagePart()
+                    .getRelationshipsByType(XWPFRelation.HYPERLINK.getRelation())) {
+                hyperlinks.add(new XWPFHyperlink(rel.getId(), rel.getTargetURI().toString()));
+            }
+        } catch (InvalidFormatException e) {
+            throw new POIXMLException(e);
+        }
+
+        allPictures.clear();
+        allTables.clear();
+        read(this, reserveId);
+        getHeaderList().forEach(header -> read(header, reserveId));
+        getFooterList().forEach(footer -> read(footer, reserveId));
     }
 
     public void niceRegisterPackagePictureData(XWPFPictureData picData) {
@@ -293,9 +413,41 @@ public class NiceXWPFDocument extends XWPFDocument {
         }
     }
 
+    /**
+     * Add the picture to the document, the same content is stored once
+     */
+    @Override
+    public String addPictureData(byte[] pictureData, int format) throws InvalidFormatException {
+        return addPictureData(pictureData, format, MediaRegistry.digest(pictureData));
+    }
+
+    /**
+     * Add the picture to the document by the digest computed before
+     * 
+     * @param pictureData
+     * @param format
+     * @param digest      the {@link MediaRegistry#digest(byte[])} of pictureData
+     * @return the relation id of picture
+     * @throws InvalidFormatException
+     */
+    public String addPictureData(byte[] pictureData, int format, String digest) throws InvalidFormatException {
+        XWPFPictureData xwpfPicData = mediaRegistry.find(digest, pictureData);
+        if (null != xwpfPicData) {
+            String relationId = getRelationId(xwpfPicData);
+            if (null != relationId) return relationId;
+            // the picture of other part
+            return addRelation(null, XWPFRelation.IMAGES, xwpfPicData).getRelationship().getId();
+        }
+        String relationId = super.addPictureData(pictureData, format);
+        mediaRegistry.register(digest, (XWPFPictureData) getRelationById(relationId));
+        return relationId;
+    }
+
     public XWPFPictureData niceFindPackagePictureData(byte[] pictureData, int format) {
+        String digest = MediaRegistry.digest(pictureData);
+        XWPFPictureData xwpfPicData = mediaRegistry.find(digest, pictureData);
+        if (null != xwpfPicData) return xwpfPicData;
         long checksum = IOUtils.calculateChecksum(pictureData);
-        XWPFPictureData xwpfPicData = null;
         /*
          * Try to find PictureData with this checksum. Create new, if none exists.
          */
@@ -309,6 +461,7 @@ public class NiceXWPFDocument extends XWPFDocument {
                 }
             }
         }
+        mediaRegistry.register(digest, xwpfPicData);
         return xwpfPicData;
     }
 
@@ -348,19 +501,23 @@ public class NiceXWPFDocument extends XWPFDocument {
     }
 
     private void read(IBody body) {
-        readParagraphs(body.getParagraphs());
-        readTables(body.getTables());
+        read(body, true);
+    }
+
+    private void read(IBody body, boolean reserveId) {
+        readParagraphs(body.getParagraphs(), reserveId);
+        readTables(body.getTables(), reserveId);
     }
 
-    private void readParagraphs(List<XWPFParagraph> paragraphs) {
-        paragraphs.forEach(paragraph -> paragraph.getRuns().forEach(run -> readRun(run)));
+    private void readParagraphs(List<XWPFParagraph> paragraphs, boolean reserveId) {
+        paragraphs.forEach(paragraph -> paragraph.getRuns().forEach(run -> readRun(run, reserveId)));
     }
 
-    private void readRun(XWPFRun run) {
+    private void readRun(XWPFRun run, boolean reserveId) {
         allPictures.addAll(run.getEmbeddedPictures());
         // compatible for unique identifier: issue#361 #225
         // mc:AlternateContent/mc:Choice/w:drawing
-        if (!this.idenifierManagerWrapper.isValid()) return;
+        if (!reserveId || !this.idenifierManagerWrapper.isValid()) return;
         CTR r = run.getCTR();
         XmlObject[] xmlObjects = r.selectPath(IdenifierManagerWrapper.XPATH_DRAWING);
         if (null == xmlObjects || xmlObjects.length <= 0) return;
@@ -393,7 +550,7 @@ public class NiceXWPFDocument extends XWPFDocument {
         }
     }
 
-    private void readTables(List<XWPFTable> tables) {
+    private void readTables(List<XWPFTable> tables, boolean reserveId) {
         allTables.addAll(tables);
         for (XWPFTable table : tables) {
             List<XWPFTableRow> rows = table.getRows();
@@ -403,7 +560,7 @@ public class NiceXWPFDocument extends XWPFDocument {
                 List<XWPFTableCell> cells = row.getTableCells();
                 if (null == cells) continue;
                 for (XWPFTableCell cell : cells) {
-                    read(cell);
+                    read(cell, reserveId);
                 }
             }
         }
@@ -12,7 +12,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTxbxContent;
 
 import com.deepoove.poi.util.ReflectionUtils;
 
-public class TextBoxBodyContainer implements BodyContainer {
+public class TextBoxBodyContainer extends AbstractBodyContainer {
 
     private XWPFTextboxContent textbox;
 
@@ -21,7 +21,7 @@ public class TextBoxBodyContainer implements BodyContainer {
     }
 
     @Override
-    public void removeBodyElement(int pos) {
+    protected void removeElement(int pos) {
         List<IBodyElement> bodyElements = getBodyElements();
         if (pos >= 0 && pos < bodyElements.size()) {
             BodyElementType type = bodyElements.get(pos).getElementType();
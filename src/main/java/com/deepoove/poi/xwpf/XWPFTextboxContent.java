@@ -67,6 +67,15 @@ public class XWPFTextboxContent implements IBody {
         return xmlObject;
     }
 
+    /**
+     * the run to which the textbox belongs
+     *
+     * @return
+     */
+    public XWPFRun getRun() {
+        return run;
+    }
+
     /**
      * get the to which the textbox belongs
      *
@@ -18,7 +18,9 @@ package com.deepoove.poi.xwpf;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -26,6 +28,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javax.xml.namespace.QName;
 
 import org.apache.poi.ooxml.POIXMLDocumentPart.RelationPart;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
@@ -33,8 +40,11 @@ import org.apache.poi.openxml4j.opc.PackageRelationship;
 import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
 import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
 import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
 import org.apache.poi.xwpf.usermodel.XWPFAbstractNum;
 import org.apache.poi.xwpf.usermodel.XWPFChart;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
 import org.apache.poi.xwpf.usermodel.XWPFNum;
 import org.apache.poi.xwpf.usermodel.XWPFNumbering;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
@@ -43,88 +53,243 @@ import org.apache.poi.xwpf.usermodel.XWPFRelation;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFStyle;
 import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlCursor.TokenType;
+import org.apache.xmlbeans.XmlObject;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocument1;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STOnOff;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
 
 public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
 
-    private static final String CROSS_REPLACE_STRING = "@PoiTL@";
-    private static ThreadLocal<Map<String, String>> styleCacheThreadLocal = new ThreadLocal<Map<String, String>>();
+    private static final String XPATH_DOCPR = "declare namespace wp='http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing' "
+            + ".//wp:docPr";
+    private static final QName DOCPR_ID = new QName("id");
+    private static final String NS_W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String NS_R = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final QName R_ID = new QName(NS_R, "id");
+    private static final QName R_EMBED = new QName(NS_R, "embed");
+    private static final QName R_LINK = new QName(NS_R, "link");
+    private static final QName W_VAL = new QName(NS_W, "val");
+    private static final QName W_PSTYLE = new QName(NS_W, "pStyle");
+    private static final QName W_TBLSTYLE = new QName(NS_W, "tblStyle");
+    private static final QName W_RSTYLE = new QName(NS_W, "rStyle");
+    private static final QName W_NUMID = new QName(NS_W, "numId");
+
+    private final Executor executor;
+    private final int parallelism;
 
     public XmlXWPFDocumentMerge() {
+        this(null);
+    }
+
+    /**
+     * @param executor the executor to prepare the merged documents in parallel,
+     *                 null means the current thread
+     */
+    public XmlXWPFDocumentMerge(Executor executor) {
+        this(executor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param executor    the executor to prepare the merged documents in
+     *                    parallel, null means the current thread
+     * @param parallelism the maximum number of merged documents prepared at the
+     *                    same time
+     */
+    public XmlXWPFDocumentMerge(Executor executor, int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be greater than 0");
+        this.executor = null == executor ? Runnable::run : executor;
+        // one document at a time on the current thread
+        this.parallelism = null == executor ? 1 : parallelism;
     }
 
     @Override
     public NiceXWPFDocument merge(NiceXWPFDocument source, Iterator<NiceXWPFDocument> mergeIterator, XWPFRun run)
             throws Exception {
-        CTBody body = source.getDocument().getBody();
-        List<String> addParts = createMergeableStrings(source, mergeIterator);
-        String[] startEnd = truncatedStartEndXmlFragment(body);
+        mergeInPlace(source, mergeIterator, run);
+        source.rebuild();
+        return source;
+    }
+
+    /**
+     * Insert the body elements of merged documents in place of the paragraph of
+     * run without writing and parsing the whole document. The xml is copied in
+     * one pass, the paragraphs and tables of the document, headers and footers
+     * are refreshed by {@link NiceXWPFDocument#rebuild()}.
+     * 
+     * @param source
+     * @param mergeIterator
+     * @param run           the only run of the paragraph
+     * @throws Exception
+     */
+    public void mergeInPlace(NiceXWPFDocument source, Iterator<NiceXWPFDocument> mergeIterator, XWPFRun run)
+            throws Exception {
+        List<MergeFragment> fragments = createMergeableFragments(source, mergeIterator);
 
         XWPFParagraph paragraph = (XWPFParagraph) run.getParent();
+        BodyContainer bodyContainer = BodyContainerFactory.getBodyContainer(run);
         CTP mergedContainer = paragraph.getCTP();
-        CTP mergedBody = CTP.Factory.parse(startEnd[0] + String.join("", addParts) + startEnd[1]);
-        // instead insert xml-fragment?
-        mergedContainer.set(mergedBody);
-        String xmlText = truncatedOverlapWP(body);
-        body.set(CTBody.Factory.parse(xmlText));
-        return source.generate(true);
-    }
+        IBody target = bodyContainer.getTarget();
+        // the document and headers are read again by rebuild, others are
+        // kept by the position index
+        boolean rebuilt = target instanceof NiceXWPFDocument || target instanceof XWPFHeaderFooter;
+        if (!rebuilt) bodyContainer.enablePositionIndex();
+
+        boolean empty = true;
+        XmlCursor toHere = mergedContainer.newCursor();
+        try {
+            for (MergeFragment fragment : fragments) {
+                XmlCursor cursor = fragment.body.newCursor();
+                try {
+                    if (!cursor.toFirstChild()) continue;
+                    empty = false;
+                    List<IBodyElement> elements = new ArrayList<IBodyElement>();
+                    do {
+                        XmlObject object = cursor.getObject();
+                        if (!rebuilt && object instanceof CTP) {
+                            elements.add(new XWPFParagraph((CTP) object, target));
+                        } else if (!rebuilt && object instanceof CTTbl) {
+                            elements.add(new XWPFTable((CTTbl) object, target));
+                        } else {
+                            // sdt, bookmark... are kept in order
+                            insertCopies(bodyContainer, mergedContainer, elements);
+                            cursor.copyXml(toHere);
+                        }
+                    } while (cursor.toNextSibling());
+                    insertCopies(bodyContainer, mergedContainer, elements);
+                } finally {
+                    cursor.dispose();
+                }
+            }
 
-    private String truncatedOverlapWP(CTBody body) {
-        String xmlText = body.xmlText(DefaultXmlOptions.OPTIONS_INNER);
-        xmlText = xmlText.replaceAll("<w:p><w:p>", "<w:p>").replaceAll("<w:p><w:p\\s", "<w:p ")
-                .replaceAll("<w:p><w:tbl>", "<w:tbl>").replaceAll("<w:p><w:tbl\\s", "<w:tbl ");
+            // keep the empty paragraph, the section of paragraph, and the last
+            // paragraph of cell
+            boolean keepContainer = empty || (mergedContainer.isSetPPr() && mergedContainer.getPPr().isSetSectPr())
+                    || (target instanceof XWPFTableCell && isLastParagraph(mergedContainer));
+            if (keepContainer) return;
+            if (rebuilt) {
+                toHere.removeXml();
+            } else {
+                bodyContainer.removeBodyElement(bodyContainer.getPosOfParagraphCTP(mergedContainer));
+            }
+        } finally {
+            toHere.dispose();
+        }
+    }
 
-        xmlText = xmlText.replaceAll("</w:sectPr></w:p>", "</w:sectPr>").replaceAll("</w:p></w:p>", "</w:p>")
-                .replaceAll("</w:tbl></w:p>", "</w:tbl>").replaceAll("<w:p(\\s[A-Za-z0-9:\\s=\"]*)?/></w:p>", "")
-                .replaceAll("</w:p><w:bookmarkEnd(\\s[A-Za-z0-9:\\s=\"]*)?/></w:p>", "</w:p>");
-        return xmlText;
+    private void insertCopies(BodyContainer bodyContainer, CTP next, List<IBodyElement> elements) {
+        if (elements.isEmpty()) return;
+        bodyContainer.insertCopies(next, elements, 1);
+        elements.clear();
     }
 
-    private String[] truncatedStartEndXmlFragment(CTBody body) {
-        String srcString = body.xmlText(DefaultXmlOptions.OPTIONS_INNER);
-        // hack for create document or single element document
-        if (!srcString.startsWith("<xml-fragment")) {
-            body.addNewSectPr();
-            srcString = body.xmlText(DefaultXmlOptions.OPTIONS_INNER);
+    private boolean isLastParagraph(CTP ctp) {
+        XmlCursor cursor = ctp.newCursor();
+        try {
+            if (cursor.toNextSibling()) return false;
+            return !cursor.toPrevSibling() || !(cursor.getObject() instanceof CTP);
+        } finally {
+            cursor.dispose();
         }
-        String prefix = srcString.substring(0, srcString.indexOf(">") + 1);
-        String suffix = srcString.substring(srcString.lastIndexOf("<"));
-        return new String[] { prefix, suffix };
     }
 
-    private List<String> createMergeableStrings(NiceXWPFDocument source, Iterator<NiceXWPFDocument> iterator)
-            throws InvalidFormatException, IOException {
-        List<String> addParts = new ArrayList<String>();
-        if (!iterator.hasNext()) return addParts;
-        NiceXWPFDocument next = iterator.next();
+    /**
+     * The fragments are prepared in parallel, then committed into source one by
+     * one in order, finally the ids of fragments are rewritten in parallel. At
+     * most parallelism documents are open, each document is closed once
+     * committed before the next one is retrieved.
+     */
+    private List<MergeFragment> createMergeableFragments(NiceXWPFDocument source,
+            Iterator<NiceXWPFDocument> iterator) throws Exception {
+        List<MergeFragment> fragments = new ArrayList<MergeFragment>();
+        if (!iterator.hasNext()) return fragments;
+        NiceXWPFDocument first = iterator.next();
 
         // apply style merge once
-        styleCacheThreadLocal.set(mergeStyles(source, next));
+        Map<String, String> styleIdsMap = mergeStyles(source, first);
+        // apply namespaces merge once
+        mergeNamespaces(source, first);
+
+        Deque<CompletableFuture<MergeFragment>> prepared = new ArrayDeque<CompletableFuture<MergeFragment>>();
+        List<CompletableFuture<?>> rewritten = new ArrayList<CompletableFuture<?>>();
         try {
-            // apply namespaces merge once
-            mergeNamespaces(source, next);
-            do {
-                addParts.add(createMergeableString(source, next));
+            while (true) {
+                while (prepared.size() < parallelism) {
+                    final NiceXWPFDocument merged;
+                    if (null != first) {
+                        merged = first;
+                        first = null;
+                    } else if (iterator.hasNext()) {
+                        merged = iterator.next();
+                    } else {
+                        break;
+                    }
+                    prepared.add(CompletableFuture.supplyAsync(() -> prepareFragment(merged), executor));
+                }
+                if (prepared.isEmpty()) break;
+
+                MergeFragment fragment = join(prepared.poll());
                 try {
-                    next.close();
-                } catch (Exception e) {
-                    logger.warn("close merged doc failed!", e);
+                    commitFragment(source, fragment, styleIdsMap);
+                } finally {
+                    release(fragment);
                 }
-                if (iterator.hasNext()) next = iterator.next();
-                else break;
-            } while (true);
+                fragments.add(fragment);
+                rewritten.add(CompletableFuture.runAsync(() -> rewriteFragment(fragment), executor));
+            }
+            join(CompletableFuture.allOf(rewritten.toArray(new CompletableFuture<?>[0])));
+            rewritten.clear();
         } finally {
-            styleCacheThreadLocal.remove();
+            // close the prepared documents if the merge fails
+            for (CompletableFuture<MergeFragment> future : prepared) {
+                future.thenAccept(this::release);
+            }
+            // no fragment is rewritten after the merge fails
+            awaitQuietly(rewritten);
+        }
+        return fragments;
+    }
+
+    private void awaitQuietly(List<CompletableFuture<?>> futures) {
+        for (CompletableFuture<?> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                logger.debug("rewrite merged doc failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * close the merged document, only the body is kept
+     */
+    private void release(MergeFragment fragment) {
+        fragment.pictures.clear();
+        if (null == fragment.doc) return;
+        try {
+            fragment.doc.close();
+        } catch (Exception e) {
+            logger.warn("close merged doc failed!", e);
+        }
+        fragment.doc = null;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            throw e;
         }
-        return addParts;
     }
 
     private void mergeNamespaces(NiceXWPFDocument source, NiceXWPFDocument docMerge) {
@@ -153,104 +318,123 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
         } while (true);
     }
 
-    private String createMergeableString(NiceXWPFDocument source, NiceXWPFDocument merged)
+    /**
+     * read the merged document without touching source
+     */
+    private MergeFragment prepareFragment(NiceXWPFDocument merged) {
+        MergeFragment fragment = new MergeFragment(merged);
+        ridSectPr(fragment.body);
+        fragment.docPrs = fragment.body.selectPath(XPATH_DOCPR);
+        // the digests of pictures are computed in parallel
+        for (XWPFPictureData pictureData : merged.getAllPictures()) {
+            byte[] data = pictureData.getData();
+            fragment.pictures.add(new PictureEntry(merged.getRelationId(pictureData), data,
+                    pictureData.getPictureType(), MediaRegistry.digest(data)));
+        }
+        return fragment;
+    }
+
+    /**
+     * register the numbering, relationships and drawing ids of fragment into
+     * source
+     */
+    private void commitFragment(NiceXWPFDocument source, MergeFragment fragment, Map<String, String> styleIdsMap)
             throws InvalidFormatException, IOException {
-        CTBody mergedBody = merged.getDocument().getBody();
+        NiceXWPFDocument merged = fragment.doc;
         // TODO For the same style, reduce the number of merges
         // Map<String, String> styleIdsMap = mergeStyles(docMerge);
         Map<String, String> numIdsMap = mergeNumbering(source, merged);
-        Map<String, String> blipIdsMap = mergePicture(source, merged);
+        Map<String, String> blipIdsMap = mergePicture(source, fragment.pictures);
         Map<String, String> externalBlipIdsMap = mergeExternalPicture(source, merged);
         Map<String, String> hyperlinkMap = mergeHyperlink(source, merged);
         Map<String, String> chartIdsMap = mergeChart(source, merged);
 
-        String appendString = mergedBody.xmlText(DefaultXmlOptions.OPTIONS_OUTER);
-        String addPart = ridSectPr(appendString);
-
-        // style
-        Map<String, String> styleIdsMap = styleCacheThreadLocal.get();
-        for (String styleId : styleIdsMap.keySet()) {
-            addPart = addPart
-                    .replaceAll("<w:pStyle\\sw:val=\"" + styleId + "\"",
-                            "<w:pStyle w:val=\"" + styleIdsMap.get(styleId) + "\"")
-                    .replaceAll("<w:tblStyle\\sw:val=\"" + styleId + "\"",
-                            "<w:tblStyle w:val=\"" + styleIdsMap.get(styleId) + "\"")
-                    .replaceAll("<w:rStyle\\sw:val=\"" + styleId + "\"",
-                            "<w:rStyle w:val=\"" + styleIdsMap.get(styleId) + "\"");
-        }
-
-        // picture id
-        Map<String, String> placeHolderblipIdsMap = new HashMap<String, String>();
-        for (String relaId : blipIdsMap.keySet()) {
-            placeHolderblipIdsMap.put(relaId, blipIdsMap.get(relaId) + CROSS_REPLACE_STRING);
-        }
-        for (String relaId : placeHolderblipIdsMap.keySet()) {
-            addPart = addPart.replaceAll("r:embed=\"" + relaId + "\"",
-                    "r:embed=\"" + placeHolderblipIdsMap.get(relaId) + "\"");
-            // w:pict v:shape v:imagedata
-            addPart = addPart.replaceAll("r:id=\"" + relaId + "\"",
-                    "r:id=\"" + placeHolderblipIdsMap.get(relaId) + "\"");
-        }
-        Map<String, String> placeHolderExternalblipIdsMap = new HashMap<String, String>();
-        for (String relaId : externalBlipIdsMap.keySet()) {
-            placeHolderExternalblipIdsMap.put(relaId, blipIdsMap.get(relaId) + CROSS_REPLACE_STRING);
-        }
-        for (String relaId : placeHolderExternalblipIdsMap.keySet()) {
-            addPart = addPart.replaceAll("r:link=\"" + relaId + "\"",
-                    "r:link=\"" + placeHolderExternalblipIdsMap.get(relaId) + "\"");
-        }
-        // hyperlink id
-        for (String relaId : hyperlinkMap.keySet()) {
-            hyperlinkMap.put(relaId, hyperlinkMap.get(relaId) + CROSS_REPLACE_STRING);
-        }
-        for (String relaId : hyperlinkMap.keySet()) {
-            // w:hyperlink r:id
-            addPart = addPart.replaceAll("r:id=\"" + relaId + "\"", "r:id=\"" + hyperlinkMap.get(relaId) + "\"");
+        // the ids of relationships are unique in the merged part
+        Map<String, String> relationIdsMap = new HashMap<String, String>(blipIdsMap);
+        relationIdsMap.putAll(hyperlinkMap);
+        relationIdsMap.putAll(chartIdsMap);
+
+        fragment.attributeIds.put(R_EMBED, blipIdsMap);
+        // w:hyperlink, c:chart, w:pict v:shape v:imagedata
+        fragment.attributeIds.put(R_ID, relationIdsMap);
+        fragment.attributeIds.put(R_LINK, externalBlipIdsMap);
+
+        fragment.valIds.put(W_PSTYLE, styleIdsMap);
+        fragment.valIds.put(W_TBLSTYLE, styleIdsMap);
+        fragment.valIds.put(W_RSTYLE, styleIdsMap);
+        fragment.valIds.put(W_NUMID, numIdsMap);
+
+        IdenifierManagerWrapper idenifierManager = source.getDocPrIdenifierManager();
+        if (null != idenifierManager && idenifierManager.isValid()) {
+            fragment.docPrIds = new long[fragment.docPrs.length];
+            for (int i = 0; i < fragment.docPrIds.length; i++) {
+                fragment.docPrIds[i] = idenifierManager.reserveNew();
+            }
         }
+    }
 
-        // chart id
-        for (String relaId : chartIdsMap.keySet()) {
-            chartIdsMap.put(relaId, chartIdsMap.get(relaId) + CROSS_REPLACE_STRING);
-        }
-        for (String relaId : chartIdsMap.keySet()) {
-            addPart = addPart.replaceAll("r:id=\"" + relaId + "\"", "r:id=\"" + chartIdsMap.get(relaId) + "\"");
+    private void rewriteFragment(MergeFragment fragment) {
+        rewriteIds(fragment.body, fragment.attributeIds, fragment.valIds);
+        if (null == fragment.docPrIds) return;
+        for (int i = 0; i < fragment.docPrs.length; i++) {
+            XmlCursor cursor = fragment.docPrs[i].newCursor();
+            cursor.setAttributeText(DOCPR_ID, String.valueOf(fragment.docPrIds[i]));
+            cursor.dispose();
         }
+    }
 
-        // numbering numId
-        for (String relaId : numIdsMap.keySet()) {
-            numIdsMap.put(relaId, numIdsMap.get(relaId) + CROSS_REPLACE_STRING);
-        }
-        for (String numId : numIdsMap.keySet()) {
-            addPart = addPart.replaceAll("<w:numId\\sw:val=\"" + numId + "\"",
-                    "<w:numId w:val=\"" + numIdsMap.get(numId) + "\"");
+    /**
+     * rewrite the ids of attributes in one pass
+     * 
+     * @param body
+     * @param attributeIds ids map of the attribute name
+     * @param valIds       ids map of the w:val attribute of the element name
+     */
+    private void rewriteIds(CTBody body, Map<QName, Map<String, String>> attributeIds,
+            Map<QName, Map<String, String>> valIds) {
+        XmlCursor cursor = body.newCursor();
+        try {
+            Map<String, String> elementValIds = null;
+            int depth = 0;
+            while (cursor.hasNextToken()) {
+                TokenType token = cursor.toNextToken();
+                if (token.isStart()) {
+                    depth++;
+                    elementValIds = valIds.get(cursor.getName());
+                } else if (token.isEnd()) {
+                    // end of body
+                    if (depth-- == 0) break;
+                } else if (token.isAttr()) {
+                    QName name = cursor.getName();
+                    Map<String, String> ids = W_VAL.equals(name) ? elementValIds : attributeIds.get(name);
+                    if (null == ids || ids.isEmpty()) continue;
+                    String id = ids.get(cursor.getTextValue());
+                    if (null != id) cursor.setTextValue(id);
+                }
+            }
+        } finally {
+            cursor.dispose();
         }
-
-        return addPart.replaceAll(CROSS_REPLACE_STRING, "");
     }
 
-    private String ridSectPr(String appendString) {
-        int lastIndexOf = appendString.lastIndexOf("<w:sectPr");
-        String addPart = "";
-        int begin = appendString.indexOf(">") + 1;
-        int end = appendString.lastIndexOf("<");
-        if (-1 != lastIndexOf) {
-            String prefix = appendString.substring(begin, appendString.lastIndexOf("<w:sectPr"));
-            String suffix = appendString.substring(appendString.lastIndexOf("</w:sectPr>") + 11, end);
-            return prefix + suffix;
-        } else if (begin < end) {
-            addPart = appendString.substring(begin, end);
+    private void ridSectPr(CTBody body) {
+        if (body.isSetSectPr()) {
+            body.unsetSectPr();
+            return;
         }
-        return addPart;
+        // the section of last paragraph
+        int size = body.sizeOfPArray();
+        if (size <= 0) return;
+        CTP ctp = body.getPArray(size - 1);
+        if (ctp.isSetPPr() && ctp.getPPr().isSetSectPr()) ctp.getPPr().unsetSectPr();
     }
 
-    private Map<String, String> mergePicture(NiceXWPFDocument source, NiceXWPFDocument merged)
+    private Map<String, String> mergePicture(NiceXWPFDocument source, List<PictureEntry> pictures)
             throws InvalidFormatException {
         Map<String, String> blipIdsMap = new HashMap<String, String>();
-        List<XWPFPictureData> allPictures = merged.getAllPictures();
-        for (XWPFPictureData xwpfPictureData : allPictures) {
-            String relationId = merged.getRelationId(xwpfPictureData);
-            String blidId = source.addPictureData(xwpfPictureData.getData(), xwpfPictureData.getPictureType());
-            blipIdsMap.put(relationId, blidId);
+        for (PictureEntry picture : pictures) {
+            String blidId = source.addPictureData(picture.data, picture.type, picture.digest);
+            blipIdsMap.put(picture.relationId, blidId);
         }
         return blipIdsMap;
     }
@@ -399,4 +583,33 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
 
     // TODO merge header, footer, pageSect...
 
+    private static class MergeFragment {
+        NiceXWPFDocument doc;
+        final CTBody body;
+        final List<PictureEntry> pictures = new ArrayList<PictureEntry>();
+        final Map<QName, Map<String, String>> attributeIds = new HashMap<QName, Map<String, String>>();
+        final Map<QName, Map<String, String>> valIds = new HashMap<QName, Map<String, String>>();
+        XmlObject[] docPrs;
+        long[] docPrIds;
+
+        MergeFragment(NiceXWPFDocument doc) {
+            this.doc = doc;
+            this.body = doc.getDocument().getBody();
+        }
+    }
+
+    private static class PictureEntry {
+        final String relationId;
+        final byte[] data;
+        final int type;
+        final String digest;
+
+        PictureEntry(String relationId, byte[] data, int type, String digest) {
+            this.relationId = relationId;
+            this.data = data;
+            this.type = type;
+            this.digest = digest;
+        }
+    }
+
 }
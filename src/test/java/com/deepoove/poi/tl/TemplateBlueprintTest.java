@@ -0,0 +1,142 @@
+package com.deepoove.poi.tl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.TemplateBlueprint;
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.exception.ResolverException;
+import com.deepoove.poi.render.compute.BindingPlan;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
+
+@DisplayName("Template blueprint test case")
+public class TemplateBlueprintTest {
+
+    @Test
+    public void testRenderMany() throws Exception {
+        TemplateBlueprint blueprint = TemplateBlueprint.compile("src/test/resources/template/render_text.docx");
+        assertTrue(blueprint.getTagCount() > 0);
+
+        XWPFTemplate first = blueprint.newTemplate();
+        XWPFTemplate second = blueprint.newTemplate();
+        assertNotSame(first.getXWPFDocument(), second.getXWPFDocument());
+        assertEquals(blueprint.getTagCount(), first.getElementTemplates().size());
+        assertEquals(blueprint.getTagCount(), second.getElementTemplates().size());
+
+        first.render(model("first"));
+        second.render(model("second"));
+
+        NiceXWPFDocument doc1 = first.getXWPFDocument();
+        NiceXWPFDocument doc2 = second.getXWPFDocument();
+        assertTrue(doc1.getParagraphs().stream().anyMatch(p -> p.getText().contains("first")));
+        assertTrue(doc2.getParagraphs().stream().anyMatch(p -> p.getText().contains("second")));
+        assertTrue(doc2.getParagraphs().stream().noneMatch(p -> p.getText().contains("first")));
+        first.close();
+        second.close();
+
+        blueprint.render(model("third")).writeToFile("out_blueprint.docx");
+    }
+
+    @Test
+    public void testRenderHeaders() throws Exception {
+        TemplateBlueprint blueprint = TemplateBlueprint.compile("src/test/resources/template/template.docx");
+        for (String value : new String[] { "first header", "second header" }) {
+            Map<String, Object> datas = new HashMap<String, Object>();
+            datas.put("header", value);
+            XWPFTemplate template = blueprint.render(datas);
+            NiceXWPFDocument doc = template.getXWPFDocument();
+            // the headers are copied from the parsed xml of blueprint
+            assertTrue(doc.getHeaderList().stream().anyMatch(header -> header.getText().contains(value)));
+            int paragraphs = doc.getParagraphs().size();
+            assertTrue(paragraphs > 0);
+            XWPFDocument written = XWPFTestSupport.readNewDocument(template);
+            assertTrue(written.getHeaderList().stream().anyMatch(header -> header.getText().contains(value)));
+            assertEquals(paragraphs, written.getParagraphs().size());
+            written.close();
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        String[] templates = { "render_text.docx", "iterable_foreach.docx", "template_textbox.docx",
+                "reference_chart.docx", "reference_picture.docx", "template_notes.docx", "render_comment.docx" };
+        for (String name : templates) {
+            String path = "src/test/resources/template/" + name;
+            TemplateBlueprint blueprint = TemplateBlueprint.compile(path);
+            assertNotNull(blueprint.getIndex(), name);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            blueprint.save(out);
+            TemplateBlueprint loaded = TemplateBlueprint.load(new ByteArrayInputStream(out.toByteArray()),
+                    Configure.createDefault());
+            assertEquals(blueprint.getTagCount(), loaded.getTagCount());
+            assertEquals(blueprint.size(), loaded.size());
+
+            XWPFTemplate expected = XWPFTemplate.compile(path);
+            XWPFTemplate actual = loaded.newTemplate();
+            assertEquals(expected.getElementTemplates().toString(), actual.getElementTemplates().toString(), name);
+            expected.close();
+            actual.close();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TemplateBlueprint.compile("src/test/resources/template/render_text.docx").save(out);
+        TemplateBlueprint.load(new ByteArrayInputStream(out.toByteArray()), Configure.createDefault())
+                .render(model("loaded"))
+                .writeToFile("out_blueprint_loaded.docx");
+        assertThrows(ResolverException.class,
+                () -> TemplateBlueprint.load(new ByteArrayInputStream(out.toByteArray()),
+                        Configure.builder().buildGramer("${", "}").build()));
+    }
+
+    @Test
+    public void testBindingPlan() throws Exception {
+        TemplateBlueprint blueprint = TemplateBlueprint.compile("src/test/resources/template/render_text.docx");
+        XWPFTemplate first = blueprint.render(model("first"));
+        BindingPlan plan = first.getBindingPlan(HashMap.class);
+        assertSame(HashMap.class, plan.getRootClass());
+        assertTrue(plan.getBindings().containsKey("title"));
+        assertTrue(plan.find("title").isBound());
+        // the tags out of the template, such as the tags of table rows, are bound on first use
+        assertFalse(plan.getBindings().containsKey("row.name"));
+        assertSame(plan.find("row.name"), plan.find("row.name"));
+        assertNull(plan.find("#this"));
+        first.close();
+
+        // the plan is reused by the following renders
+        XWPFTemplate second = blueprint.render(model("second"));
+        assertSame(plan, second.getBindingPlan(HashMap.class));
+        assertTrue(second.getXWPFDocument().getParagraphs().stream().anyMatch(p -> p.getText().contains("second")));
+        second.close();
+
+        // the templates compiled alone have their own plans
+        XWPFTemplate template = XWPFTemplate.compile("src/test/resources/template/render_text.docx");
+        assertNotSame(plan, template.render(model("alone")).getBindingPlan(HashMap.class));
+        template.close();
+    }
+
+    private Map<String, Object> model(String value) {
+        Map<String, Object> datas = new HashMap<String, Object>();
+        datas.put("title", value);
+        datas.put("text", value);
+        return datas;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.deepoove.poi.tl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.TemplateBlueprint;
+import com.deepoove.poi.TemplateCache;
+import com.deepoove.poi.config.Configure;
+
+@DisplayName("Template cache test case")
+public class TemplateCacheTest {
+
+    @Test
+    public void testHitAndEviction() throws Exception {
+        TemplateCache cache = new TemplateCache(2);
+        TemplateBlueprint text = cache.get("src/test/resources/template/render_text.docx");
+        assertSame(text, cache.get("src/test/resources/template/render_text.docx"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.get("src/test/resources/template/render_picture.docx");
+        cache.get("src/test/resources/template/render_table.docx");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        // the eldest one has been evicted
+        assertNotSame(text, cache.get("src/test/resources/template/render_text.docx"));
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testWeightEviction() throws Exception {
+        TemplateCache cache = new TemplateCache(Configure.createDefault(), 100, 1);
+        cache.get("src/test/resources/template/render_text.docx");
+        cache.get("src/test/resources/template/render_picture.docx");
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testStreamAndInvalidate() throws Exception {
+        TemplateCache cache = new TemplateCache(10);
+        File file = new File("src/test/resources/template/render_text.docx");
+        TemplateBlueprint blueprint = cache.get(new FileInputStream(file));
+        assertSame(blueprint, cache.get(new FileInputStream(file)));
+
+        cache.invalidate(Files.readAllBytes(file.toPath()));
+        assertNotSame(blueprint, cache.get(new FileInputStream(file)));
+
+        File copy = File.createTempFile("poitl", ".docx");
+        copy.deleteOnExit();
+        Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        blueprint = cache.get(copy);
+        assertSame(blueprint, cache.get(copy));
+
+        // changed on disk
+        copy.setLastModified(copy.lastModified() - 10000);
+        assertNotSame(blueprint, cache.get(copy));
+
+        blueprint = cache.get(copy);
+        cache.invalidate(copy);
+        assertNotSame(blueprint, cache.get(copy));
+    }
+
+    @Test
+    public void testConcurrentMissCompileOnce() throws Exception {
+        TemplateCache cache = new TemplateCache(10);
+        byte[] content = Files.readAllBytes(new File("src/test/resources/template/render_text.docx").toPath());
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<TemplateBlueprint>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get(content);
+                }));
+            }
+            start.countDown();
+            TemplateBlueprint blueprint = futures.get(0).get();
+            for (Future<TemplateBlueprint> future : futures) {
+                assertSame(blueprint, future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, cache.size());
+        assertEquals(threads, cache.getHitCount() + cache.getMissCount());
+    }
+
+}
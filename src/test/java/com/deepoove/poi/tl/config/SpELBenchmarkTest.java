@@ -0,0 +1,88 @@
+package com.deepoove.poi.tl.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.SpELRenderDataCompute;
+import com.deepoove.poi.tl.source.Benchmark;
+import com.deepoove.poi.tl.source.BenchmarkTest;
+
+@DisplayName("SpEL benchmark")
+public class SpELBenchmarkTest {
+
+    static final int ITEMS = 100000;
+    static final int ROUNDS = 3;
+    static final String[] ELS = { "name", "name.toUpperCase()", "price / 100 + ' yuan'", "price > 1000 ? 'high' : 'low'",
+            "customer.city" };
+
+    @BenchmarkTest
+    public void benchmarkCompute() throws Exception {
+        Order order = new Order();
+        int evals = ITEMS * ELS.length;
+        Benchmark.rounds(ROUNDS, round -> {
+            // a parser and a context per item, parse per eval
+            long parsed = Benchmark.nanos(() -> {
+                for (int i = 0; i < ITEMS; i++) {
+                    SpelExpressionParser parser = new SpelExpressionParser();
+                    StandardEvaluationContext context = new StandardEvaluationContext(order);
+                    for (String el : ELS) {
+                        if (null == parser.parseExpression(el).getValue(context)) throw new IllegalStateException();
+                    }
+                }
+            });
+
+            StringBuilder sb = new StringBuilder();
+            for (SpelCompilerMode mode : new SpelCompilerMode[] { SpelCompilerMode.OFF, SpelCompilerMode.MIXED,
+                    SpelCompilerMode.IMMEDIATE }) {
+                SpELRenderDataCompute compute = new SpELRenderDataCompute(EnvModel.ofModel(order), true,
+                        Collections.emptyMap(), mode);
+                long cost = Benchmark.nanos(() -> {
+                    for (int i = 0; i < ITEMS; i++) {
+                        compute.reset(EnvModel.ofModel(order));
+                        for (String el : ELS) {
+                            if (null == compute.compute(el)) throw new IllegalStateException();
+                        }
+                    }
+                });
+                assertEquals("HANGZHOU", compute.compute("customer.city.toUpperCase()"));
+                sb.append(String.format(", cached %s %.1f ns/eval", mode, (double) cost / evals));
+            }
+            Benchmark.report("%d SpEL evals, round %d: parse per eval %.1f ns/eval%s", evals, round,
+                    (double) parsed / evals, sb);
+        });
+    }
+
+    public static class Order {
+        private String name = "poi-tl";
+        private long price = 880000;
+        private Customer customer = new Customer();
+
+        public String getName() {
+            return name;
+        }
+
+        public long getPrice() {
+            return price;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+    }
+
+    public static class Customer {
+        private String city = "Hangzhou";
+
+        public String getCity() {
+            return city;
+        }
+    }
+
+}
@@ -8,6 +8,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -19,10 +20,13 @@ import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure;
 import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.render.compute.RenderDataComputeFactory;
 import com.deepoove.poi.render.compute.SpELRenderDataCompute;
 import com.deepoove.poi.tl.source.XWPFTestSupport;
 
@@ -112,6 +116,57 @@ public class SpELTest {
         assertEquals(spelForFunction.compute("#substringStaticMethod('spElFunction', 2)"), "ElFunction");
     }
 
+    @Test
+    public void testCompilerMode() {
+        String[] els = { "name", "name.toUpperCase()", "price/10000 + '万元'", "dogs[1].age", "data['hello']" };
+        for (SpelCompilerMode mode : SpelCompilerMode.values()) {
+            SpELRenderDataCompute compute = new SpELRenderDataCompute(EnvModel.ofModel(data), true,
+                    Collections.emptyMap(), mode);
+            // the expressions are compiled after some evaluations
+            for (int i = 0; i < 200; i++) {
+                for (String el : els) {
+                    assertEquals(spelForBean.compute(el), compute.compute(el), mode + ": " + el);
+                }
+            }
+            // another model of the same type
+            SpELData another = new SpELData();
+            another.setDogs(data.getDogs());
+            another.setName("another");
+            compute.reset(EnvModel.ofModel(another));
+            assertEquals("ANOTHER", compute.compute("name.toUpperCase()"));
+        }
+    }
+
+    @Test
+    public void testCompilerModeWithRootTypes() {
+        Map<String, Object> env = new HashMap<>();
+        env.put("_index", 0);
+        for (SpelCompilerMode mode : SpelCompilerMode.values()) {
+            // the computes of one factory share the compiled expressions
+            RenderDataComputeFactory factory = SpELRenderDataCompute.factory(true, Collections.emptyMap(), mode);
+            for (int i = 0; i < 3; i++) {
+                assertEquals("poi-tl", factory.newCompute(EnvModel.of(data, env)).compute("name"), mode.name());
+            }
+            Named named = new Named();
+            assertEquals("named", factory.newCompute(EnvModel.ofModel(named)).compute("name"), mode.name());
+            assertEquals("named", factory.newCompute(EnvModel.of(named, env)).compute("name"), mode.name());
+            assertEquals(0, factory.newCompute(EnvModel.of(named, env)).compute("_index"), mode.name());
+
+            // the computes of other factories are not affected
+            RenderDataCompute compute = SpELRenderDataCompute.factory(false, Collections.emptyMap(), mode)
+                    .newCompute(EnvModel.ofModel(named));
+            assertEquals("named", compute.compute("name"), mode.name());
+            ((SpELRenderDataCompute) compute).reset(EnvModel.ofModel(data));
+            assertEquals("poi-tl", compute.compute("name"), mode.name());
+        }
+    }
+
+    public static class Named {
+        public String getName() {
+            return "named";
+        }
+    }
+
     @Test
     public void testSpELTemplate() throws IOException {
         Configure config = Configure.builder().useSpringEL(spELFunction).build();
@@ -0,0 +1,37 @@
+package com.deepoove.poi.tl.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.data.MergeCellRule;
+import com.deepoove.poi.data.MergeCellRule.Grid;
+import com.deepoove.poi.data.MergeCellRule.MergeCellRuleBuilder;
+
+@DisplayName("Merge cell rule test case")
+public class MergeCellRuleTest {
+
+    @Test
+    public void testAdjacentMatrixes() {
+        MergeCellRule rule = MergeCellRule.builder().map(Grid.of(0, 0), Grid.of(1, 1)).map(Grid.of(0, 2), Grid.of(0, 3))
+                .map(Grid.of(3, 1), Grid.of(2, 0)).map(Grid.of(1, 3), Grid.of(2, 2)).build();
+        assertEquals(4, rule.getMapping().size());
+    }
+
+    @Test
+    public void testOverlapMatrixes() {
+        MergeCellRuleBuilder builder = MergeCellRule.builder().map(Grid.of(2, 2), Grid.of(3, 4));
+        assertThrows(IllegalArgumentException.class, () -> builder.map(Grid.of(3, 3), Grid.of(3, 3)));
+        // corner inside
+        assertThrows(IllegalArgumentException.class, () -> builder.map(Grid.of(3, 4), Grid.of(5, 5)));
+        assertThrows(IllegalArgumentException.class, () -> builder.map(Grid.of(0, 0), Grid.of(2, 2)));
+        // contains the merged matrix
+        assertThrows(IllegalArgumentException.class, () -> builder.map(Grid.of(1, 1), Grid.of(4, 5)));
+        // crosses the merged matrix
+        assertThrows(IllegalArgumentException.class, () -> builder.map(Grid.of(1, 3), Grid.of(4, 3)));
+        assertEquals(1, builder.build().getMapping().size());
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.deepoove.poi.tl.expression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.beans.PropertyDescriptor;
+
+import org.junit.jupiter.api.DisplayName;
+
+import com.deepoove.poi.expression.DefaultEL;
+import com.deepoove.poi.expression.DotBinding;
+import com.deepoove.poi.tl.source.Benchmark;
+import com.deepoove.poi.tl.source.BenchmarkTest;
+
+@DisplayName("Default EL benchmark")
+public class DefaultELBenchmarkTest {
+
+    static final int ITEMS = 200000;
+    static final int ROUNDS = 3;
+    static final String[] ELS = { "customer.name", "customer.address.city", "customer.address.street", "amount",
+            "status" };
+
+    @BenchmarkTest
+    public void benchmarkEval() throws Exception {
+        Order order = new Order();
+        // the bindings of a plan are reused by the items
+        DotBinding[] bindings = new DotBinding[ELS.length];
+        for (int j = 0; j < ELS.length; j++) {
+            bindings[j] = DotBinding.of(ELS[j]);
+        }
+        int evals = ITEMS * ELS.length;
+        Benchmark.rounds(ROUNDS, round -> {
+            // introspect and invoke per read
+            long reflection = Benchmark.nanos(() -> {
+                for (int i = 0; i < ITEMS; i++) {
+                    for (String el : ELS) {
+                        Object value = order;
+                        for (String key : el.split("\\.")) {
+                            value = new PropertyDescriptor(key, value.getClass()).getReadMethod().invoke(value);
+                        }
+                        if (null == value) throw new IllegalStateException();
+                    }
+                }
+            });
+
+            // a new model per item, the values are not cached
+            long accessor = Benchmark.nanos(() -> {
+                for (int i = 0; i < ITEMS; i++) {
+                    DefaultEL el = DefaultEL.create(order);
+                    for (String expression : ELS) {
+                        if (null == el.eval(expression)) throw new IllegalStateException();
+                    }
+                }
+            });
+            assertEquals("Hangzhou", DefaultEL.create(order).eval("customer.address.city"));
+
+            long bound = Benchmark.nanos(() -> {
+                for (int i = 0; i < ITEMS; i++) {
+                    DefaultEL el = DefaultEL.create(order);
+                    for (DotBinding binding : bindings) {
+                        if (null == binding.eval(el)) throw new IllegalStateException();
+                    }
+                }
+            });
+            assertEquals("Hangzhou", bindings[1].eval(DefaultEL.create(order)));
+
+            Benchmark.report("%d evals of pojo model, round %d: introspect per read %.1f ns/eval, "
+                    + "default el %.1f ns/eval, binding %.1f ns/eval", evals, round, (double) reflection / evals,
+                    (double) accessor / evals, (double) bound / evals);
+        });
+    }
+
+    public static class Order {
+        private Customer customer = new Customer();
+        private double amount = 100.5;
+        private String status = "PAID";
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(Customer customer) {
+            this.customer = customer;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+    }
+
+    public static class Customer {
+        private String name = "Sayi";
+        private Address address = new Address();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+    }
+
+    public static class Address {
+        private String city = "Hangzhou";
+        private String street = "Wensan Road";
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+
+        public String getStreet() {
+            return street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+    }
+
+}
@@ -1,22 +1,58 @@
 package com.deepoove.poi.tl.expression;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.deepoove.poi.exception.ExpressionEvalException;
 import com.deepoove.poi.expression.DefaultEL;
+import com.deepoove.poi.expression.Dot;
+import com.deepoove.poi.expression.DotBinding;
 import com.deepoove.poi.expression.Name;
 
 @DisplayName("Default EL test case")
 public class DefaultELTest {
 
+    @Test
+    public void testCompiledDot() {
+        Dot dot = Dot.of("user.work.name");
+        assertSame(dot, Dot.of("user.work.name"));
+        assertSame(Dot.of("user.work"), dot.getTarget());
+        assertEquals("name", dot.getKey());
+        assertThrows(ExpressionEvalException.class, () -> Dot.of("user..name"));
+        assertThrows(ExpressionEvalException.class, () -> Dot.of(".user"));
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("user", Collections.singletonMap("work", Collections.singletonMap("name", "poi-tl")));
+        assertEquals("poi-tl", DefaultEL.create(model).eval("user.work.name"));
+    }
+
+    @Test
+    public void testCompiledDotEviction() {
+        // the full cache evicts single expressions, the one just compiled is kept
+        for (int i = 0; i < 5000; i++) {
+            String el = "evicted" + i + ".name";
+            assertSame(Dot.of(el), Dot.of(el));
+        }
+        assertEquals("name", Dot.of("user.work.name").getKey());
+    }
+
     @SuppressWarnings("serial")
     @Test
     public void test4Bean() {
@@ -83,6 +119,153 @@ public class DefaultELTest {
         }
     }
 
+    @Test
+    public void testPropertyAccessors() {
+        Account account = new Account();
+        DefaultEL elObject = new DefaultEL(account);
+        // read only property
+        assertEquals("ACCOUNT", elObject.eval("display"));
+        // the failed getter falls back to the field
+        assertEquals("secret", elObject.eval("token"));
+        assertEquals("alias of parent", elObject.eval("parent_alias"));
+        assertEquals("constant", elObject.eval("CONSTANT"));
+        // the missing property is cached and still fails
+        assertThrows(ExpressionEvalException.class, () -> elObject.eval("missing"));
+        assertThrows(ExpressionEvalException.class, () -> new DefaultEL(account).eval("missing"));
+    }
+
+    @Test
+    public void testCapitalizedKeys() {
+        User user = new User();
+        user.setName("Sayi");
+        Account account = new Account();
+        assertEquals("Sayi", new DefaultEL(user).eval("Name"));
+        assertEquals("Sayi", new DefaultEL(user).eval("name"));
+        // Introspector names the property XIndex
+        assertEquals(7, new DefaultEL(account).eval("xIndex"));
+        assertEquals(7, new DefaultEL(account).eval("XIndex"));
+        // getClass is not a property
+        assertThrows(ExpressionEvalException.class, () -> new DefaultEL(account).eval("class"));
+        assertThrows(ExpressionEvalException.class, () -> new DefaultEL(account).eval("Class"));
+    }
+
+    @Test
+    public void testDotBinding() {
+        Map<String, Object> first = new HashMap<>();
+        first.put("account", new Account());
+        Map<String, Object> second = new HashMap<>();
+        second.put("account", new Account() {
+            @Override
+            public String getDisplay() {
+                return "SUBCLASS";
+            }
+        });
+
+        DotBinding binding = DotBinding.of("account.display");
+        assertFalse(binding.isBound());
+        assertEquals("ACCOUNT", binding.eval(new DefaultEL(first)));
+        assertTrue(binding.isBound());
+        assertEquals("ACCOUNT", binding.eval(new DefaultEL(first)));
+        // another class falls back to the default el
+        assertEquals("SUBCLASS", binding.eval(new DefaultEL(second)));
+        assertEquals("ACCOUNT", binding.eval(new DefaultEL(first)));
+
+        // the same results and errors as the default el
+        DotBinding field = DotBinding.of("account.token");
+        assertEquals("secret", field.eval(new DefaultEL(first)));
+        assertEquals("secret", field.eval(new DefaultEL(first)));
+        DotBinding missing = DotBinding.of("account.missing");
+        assertThrows(ExpressionEvalException.class, () -> missing.eval(new DefaultEL(first)));
+        DotBinding nullValue = DotBinding.of("none.display");
+        assertThrows(ExpressionEvalException.class, () -> nullValue.eval(new DefaultEL(first)));
+        assertFalse(nullValue.isBound());
+        assertNull(DotBinding.of("none").eval(new DefaultEL(first)));
+        DotBinding string = DotBinding.of("account.display.length");
+        assertThrows(ExpressionEvalException.class, () -> string.eval(new DefaultEL(first)));
+        assertFalse(string.isBound());
+        assertThrows(ExpressionEvalException.class, () -> DotBinding.of("account..display"));
+    }
+
+    @Test
+    public void testFieldCacheUnderConcurrentEval() throws Exception {
+        int size = DefaultEL.getFieldCacheSize();
+        // fewer cached classes than the models, the cache is evicted all the time
+        DefaultEL.setFieldCacheSize(2);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Object[] models = { new Field1(), new Field2(), new Field3(), new Field4(), new Field5() };
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        for (Object model : models) {
+                            DefaultEL elObject = new DefaultEL(model);
+                            assertEquals(model.getClass().getSimpleName(), elObject.eval("value"));
+                            String missing = "missing" + thread + "_" + i;
+                            assertThrows(ExpressionEvalException.class, () -> elObject.eval(missing));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            DefaultEL.setFieldCacheSize(size);
+        }
+        assertThrows(IllegalStateException.class, () -> DefaultEL.setFieldCacheSize(0));
+    }
+
+    public static class Field1 {
+        @Name("value")
+        private String name = "Field1";
+    }
+
+    public static class Field2 {
+        @Name("value")
+        private String name = "Field2";
+    }
+
+    public static class Field3 {
+        @Name("value")
+        private String name = "Field3";
+    }
+
+    public static class Field4 {
+        @Name("value")
+        private String name = "Field4";
+    }
+
+    public static class Field5 {
+        @Name("value")
+        private String name = "Field5";
+    }
+
+    public static class Parent {
+        @Name("parent_alias")
+        private String parentAlias = "alias of parent";
+    }
+
+    public static class Account extends Parent {
+        static final String CONSTANT = "constant";
+        private String token = "secret";
+
+        public String getDisplay() {
+            return "ACCOUNT";
+        }
+
+        public String getToken() {
+            throw new IllegalStateException("token is hidden");
+        }
+
+        public int getXIndex() {
+            return 7;
+        }
+
+    }
+
     public class Person {
         private User user;
         private String work;
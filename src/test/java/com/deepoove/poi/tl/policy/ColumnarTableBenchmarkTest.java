@@ -0,0 +1,95 @@
+package com.deepoove.poi.tl.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.DisplayName;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.data.ColumnarTables;
+import com.deepoove.poi.data.ColumnarTables.ColumnarTableBuilder;
+import com.deepoove.poi.data.RenderData;
+import com.deepoove.poi.data.Rows;
+import com.deepoove.poi.data.Tables;
+import com.deepoove.poi.data.Tables.TableBuilder;
+import com.deepoove.poi.tl.source.Benchmark;
+import com.deepoove.poi.tl.source.BenchmarkTest;
+
+@DisplayName("Columnar table benchmark")
+public class ColumnarTableBenchmarkTest {
+
+    static final int[] ROWS = { 10000, 50000 };
+    static final int COLS = 8;
+
+    @BenchmarkTest
+    public void benchmarkRender() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{#table}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+        doc.close();
+
+        for (int rows : ROWS) {
+            long before = Benchmark.usedMemory();
+            RenderData table = createTable(rows);
+            long tableHeap = Benchmark.usedMemory() - before;
+            before = Benchmark.usedMemory();
+            RenderData columnar = createColumnarTable(rows);
+            long columnarHeap = Benchmark.usedMemory() - before;
+
+            long tableCost = render(out, table, rows);
+            long columnarCost = render(out, columnar, rows);
+
+            Benchmark.report("%d x %d table: rows data %.2f MB %.2f ms, columnar data %.2f MB %.2f ms", rows, COLS,
+                    tableHeap / 1048576.0, tableCost / 1e6, columnarHeap / 1048576.0, columnarCost / 1e6);
+        }
+    }
+
+    private long render(ByteArrayOutputStream out, RenderData table, int rows) throws Exception {
+        Map<String, Object> data = new HashMap<>();
+        data.put("table", table);
+        XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(out.toByteArray()));
+        long cost = Benchmark.nanos(() -> template.render(data));
+        assertEquals(rows + 1, template.getXWPFDocument().getTables().get(0).getRows().size());
+        template.close();
+        return cost;
+    }
+
+    private RenderData createTable(int rows) {
+        TableBuilder builder = Tables.ofWidth(16.0).addRow(Rows.of(header()).create());
+        for (int i = 0; i < rows; i++) {
+            String[] cells = new String[COLS];
+            for (int j = 0; j < COLS; j++) {
+                cells[j] = "cell " + i + "-" + j;
+            }
+            builder.addRow(Rows.of(cells).create());
+        }
+        return builder.create();
+    }
+
+    private RenderData createColumnarTable(int rows) {
+        ColumnarTableBuilder builder = ColumnarTables.ofWidth(16.0).header(header());
+        for (int j = 0; j < COLS; j++) {
+            String[] values = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = "cell " + i + "-" + j;
+            }
+            builder.addColumn(values);
+        }
+        return builder.create();
+    }
+
+    private String[] header() {
+        String[] header = new String[COLS];
+        for (int j = 0; j < COLS; j++) {
+            header[j] = "col " + j;
+        }
+        return header;
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.deepoove.poi.tl.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.data.ColumnarTableRenderData;
+import com.deepoove.poi.data.ColumnarTables;
+import com.deepoove.poi.data.Rows;
+import com.deepoove.poi.data.style.CellStyle;
+import com.deepoove.poi.data.style.Style;
+import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+
+@DisplayName("Columnar table render test case")
+public class ColumnarTableRenderPolicyTest {
+
+    private XWPFTemplate compile() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{#table}}");
+        return XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc));
+    }
+
+    @Test
+    public void testRenderColumnarTable() throws Exception {
+        CellStyle cellStyle = new CellStyle();
+        cellStyle.setBackgroundColor("EEEEEE");
+        ColumnarTableRenderData table = ColumnarTables.ofWidth(14.0)
+                .header(Rows.of("name", "count", "total", "amount").bgColor("4472C4").create())
+                .addColumn(new String[] { "a", null, " c " }, cellStyle, Style.builder().buildBold().build())
+                .addColumn(new int[] { 1, 2, 3 })
+                .addColumn(new long[] { 10000000000L, 0, -1 })
+                .addColumn(new double[] { 1.5, 2, 3.125 }, "%.2f")
+                .create();
+        Map<String, Object> datas = new HashMap<>();
+        datas.put("table", table);
+
+        XWPFTemplate template = compile().render(datas);
+        XWPFDocument document = XWPFTestSupport.readNewDocument(template);
+        XWPFTable xwpfTable = document.getTables().get(0);
+        assertEquals(4, xwpfTable.getRows().size());
+        assertEquals("name", xwpfTable.getRow(0).getCell(0).getText());
+        assertEquals("amount", xwpfTable.getRow(0).getCell(3).getText());
+        assertEquals("4472C4", xwpfTable.getRow(0).getCell(0).getColor());
+
+        assertEquals("a", xwpfTable.getRow(1).getCell(0).getText());
+        assertEquals("", xwpfTable.getRow(2).getCell(0).getText());
+        assertEquals(" c ", xwpfTable.getRow(3).getCell(0).getText());
+        assertEquals("EEEEEE", xwpfTable.getRow(3).getCell(0).getColor());
+        assertEquals(true, xwpfTable.getRow(3).getCell(0).getParagraphs().get(0).getRuns().get(0).isBold());
+        assertEquals("2", xwpfTable.getRow(2).getCell(1).getText());
+        assertEquals("10000000000", xwpfTable.getRow(1).getCell(2).getText());
+        assertEquals("-1", xwpfTable.getRow(3).getCell(2).getText());
+        assertEquals("1.50", xwpfTable.getRow(1).getCell(3).getText());
+        assertEquals("3.13", xwpfTable.getRow(3).getCell(3).getText());
+        document.close();
+    }
+
+    @Test
+    public void testRenderMultipleLines() throws Exception {
+        Map<String, Object> datas = new HashMap<>();
+        datas.put("table", ColumnarTables.ofAutoWidth().addColumn(new String[] { "a\nb", "c\n" }).create());
+
+        XWPFTemplate template = compile().render(datas);
+        XWPFDocument document = XWPFTestSupport.readNewDocument(template);
+        XWPFTable xwpfTable = document.getTables().get(0);
+        XWPFRun run = xwpfTable.getRow(0).getCell(0).getParagraphs().get(0).getRuns().get(0);
+        assertEquals(1, run.getCTR().sizeOfBrArray());
+        assertEquals(2, run.getCTR().sizeOfTArray());
+        assertEquals("a\nb", xwpfTable.getRow(0).getCell(0).getText());
+        assertEquals("c\n", xwpfTable.getRow(1).getCell(0).getText());
+        document.close();
+    }
+
+    @Test
+    public void testRenderHeaderOnly() throws Exception {
+        Map<String, Object> datas = new HashMap<>();
+        datas.put("table", ColumnarTables.ofAutoWidth().header("name", "count").addColumn(new String[0])
+                .addColumn(new int[0]).create());
+
+        XWPFTemplate template = compile().render(datas);
+        XWPFDocument document = XWPFTestSupport.readNewDocument(template);
+        XWPFTable xwpfTable = document.getTables().get(0);
+        assertEquals(1, xwpfTable.getRows().size());
+        assertEquals("count", xwpfTable.getRow(0).getCell(1).getText());
+        document.close();
+    }
+
+    @Test
+    public void testInvalidColumns() throws Exception {
+        Map<String, Object> datas = new HashMap<>();
+        datas.put("table", ColumnarTables.ofAutoWidth().addColumn(new String[] { "a" })
+                .addColumn(new int[] { 1, 2 }).create());
+        XWPFTemplate template = compile();
+        assertThrows(RenderException.class, () -> template.render(datas));
+        template.close();
+    }
+
+}
@@ -1,20 +1,40 @@
 package com.deepoove.poi.tl.policy;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import java.io.File;
 import java.io.FileInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.deepoove.poi.TemplateCache;
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
 import com.deepoove.poi.data.Includes;
 import com.deepoove.poi.data.PictureRenderData;
+import com.deepoove.poi.policy.DocxRenderPolicy;
 import com.deepoove.poi.tl.source.DataTest;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
 
 @DisplayName("Include Docx Render test case")
 public class DocxRenderTest {
@@ -74,4 +94,140 @@ public class DocxRenderTest {
 
     }
 
+    @Test
+    public void testIncludeInPlace() throws Exception {
+        Map<String, Object> datas = new HashMap<String, Object>();
+        datas.put("title", "Hello, poi tl.");
+        datas.put("docx_template", Includes.ofLocal("src/test/resources/template/render_include_merge_template.docx")
+                .setRenderModel(dataList).create());
+        datas.put("docx_template2",
+                Includes.ofLocal("src/test/resources/template/render_include_picture.docx").create());
+        datas.put("docx_template3", Includes.ofLocal("src/test/resources/template/render_include_table.docx").create());
+
+        XWPFTemplate template = XWPFTemplate.compile("src/test/resources/template/render_include.docx");
+        NiceXWPFDocument doc = template.getXWPFDocument();
+        template.render(datas);
+        // rendered in place
+        assertSame(doc, template.getXWPFDocument());
+
+        List<String> texts = texts(doc);
+        assertFalse(texts.stream().anyMatch(text -> text.contains("{{+docx_template")));
+        int tables = doc.getTables().size();
+        int pictures = doc.getAllEmbeddedPictures().size();
+
+        // the rebuilt document is the same as the parsed one
+        try (NiceXWPFDocument read = new NiceXWPFDocument(XWPFTestSupport.readInputStream(doc))) {
+            assertEquals(texts, texts(read));
+            assertEquals(tables, read.getTables().size());
+            assertEquals(pictures, read.getAllEmbeddedPictures().size());
+        }
+    }
+
+    @Test
+    public void testCompileIncludeOnce() throws Exception {
+        DocxRenderPolicy policy = new DocxRenderPolicy();
+        Configure config = Configure.builder().bind("docx_template", policy).build();
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> datas = new HashMap<String, Object>();
+            datas.put("docx_template",
+                    Includes.ofLocal("src/test/resources/template/render_include_merge_template.docx")
+                            .setRenderModel(dataList).create());
+            XWPFTemplate template = XWPFTemplate.compile("src/test/resources/template/render_include.docx", config)
+                    .render(datas);
+            List<String> texts = texts(template.getXWPFDocument());
+            assertTrue(texts.stream().anyMatch(text -> text.contains(dataList.get(0).getQuestion())));
+            assertTrue(texts.stream().anyMatch(text -> text.contains(dataList.get(1).getQuestion())));
+            template.close();
+        }
+        // compiled once and shared across renders
+        TemplateCache cache = policy.getTemplateCache(config);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testCompileIncludeOncePerConfig() throws Exception {
+        DocxRenderPolicy policy = new DocxRenderPolicy();
+        Configure first = Configure.builder().bind("docx_template", policy).build();
+        Configure second = Configure.builder().bind("docx_template", policy).build();
+        for (int i = 0; i < 4; i++) {
+            Map<String, Object> datas = new HashMap<String, Object>();
+            datas.put("docx_template",
+                    Includes.ofLocal("src/test/resources/template/render_include_merge_template.docx")
+                            .setRenderModel(dataList).create());
+            XWPFTemplate.compile("src/test/resources/template/render_include.docx", i % 2 == 0 ? first : second)
+                    .render(datas)
+                    .close();
+        }
+        // the alternating configs keep their own caches
+        TemplateCache firstCache = policy.getTemplateCache(first);
+        TemplateCache secondCache = policy.getTemplateCache(second);
+        assertNotSame(firstCache, secondCache);
+        assertSame(first, firstCache.getConfig());
+        assertSame(second, secondCache.getConfig());
+        assertEquals(1, firstCache.getMissCount());
+        assertEquals(1, firstCache.getHitCount());
+        assertEquals(1, secondCache.getMissCount());
+        assertEquals(1, secondCache.getHitCount());
+    }
+
+    @Test
+    public void testIncludeInParallel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<String> expected = renderInclude(Configure.createDefault());
+            assertEquals(expected, renderInclude(Configure.builder().setMergeExecutor(executor).build()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNestedIncludeInParallel() throws Exception {
+        // the nested includes must not wait for the only thread of pool
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            Configure config = Configure.builder().setMergeExecutor(executor, 2).build();
+            List<Map<String, Object>> models = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Map<String, Object> model = new HashMap<String, Object>();
+                model.put("docx_template",
+                        Includes.ofLocal("src/test/resources/template/render_include_merge_template.docx")
+                                .setRenderModel(dataList).create());
+                models.add(model);
+            }
+            Map<String, Object> datas = new HashMap<String, Object>();
+            datas.put("docx_template",
+                    Includes.ofLocal("src/test/resources/template/render_include.docx").setRenderModel(models).create());
+            List<String> texts = assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+                XWPFTemplate template = XWPFTemplate
+                        .compile("src/test/resources/template/render_include.docx", config).render(datas);
+                List<String> result = texts(template.getXWPFDocument());
+                template.close();
+                return result;
+            });
+            String question = dataList.get(0).getQuestion();
+            assertEquals(3, texts.stream().filter(text -> text.contains(question)).count());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<String> renderInclude(Configure config) throws Exception {
+        Map<String, Object> datas = new HashMap<String, Object>();
+        datas.put("docx_template", Includes.ofLocal("src/test/resources/template/render_include_merge_template.docx")
+                .setRenderModel(dataList).create());
+        XWPFTemplate template = XWPFTemplate.compile("src/test/resources/template/render_include.docx", config)
+                .render(datas);
+        List<String> texts = texts(template.getXWPFDocument());
+        template.close();
+        return texts;
+    }
+
+    private List<String> texts(NiceXWPFDocument doc) {
+        return doc.getBodyElements().stream().map(element -> element instanceof XWPFParagraph
+                ? ((XWPFParagraph) element).getText() : ((XWPFTable) element).getText()).collect(Collectors.toList());
+    }
+
 }
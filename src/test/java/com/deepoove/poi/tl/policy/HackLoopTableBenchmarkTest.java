@@ -0,0 +1,63 @@
+package com.deepoove.poi.tl.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.DisplayName;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.plugin.table.HackLoopTableRenderPolicy;
+import com.deepoove.poi.tl.source.Benchmark;
+import com.deepoove.poi.tl.source.BenchmarkTest;
+
+@DisplayName("Hack loop table benchmark")
+public class HackLoopTableBenchmarkTest {
+
+    static final int[] ROWS = { 5000, 10000, 20000, 40000 };
+
+    @BenchmarkTest
+    public void benchmarkRender() throws Exception {
+        HackLoopTableRenderPolicy policy = new HackLoopTableRenderPolicy();
+        Configure config = Configure.builder().bind("items", policy).build();
+        XWPFDocument doc = new XWPFDocument();
+        XWPFTable table = doc.createTable(2, 4);
+        table.getRow(0).getCell(0).setText("{{items}}");
+        table.getRow(1).getCell(0).setText("[date]");
+        table.getRow(1).getCell(1).setText("[name]");
+        table.getRow(1).getCell(2).setText("[amount]");
+        table.getRow(1).getCell(3).setText("No. [id]");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+        doc.close();
+
+        for (int rows : ROWS) {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int i = 0; i < rows; i++) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("date", "2020-01-01");
+                item.put("name", "item " + i);
+                item.put("amount", String.valueOf(i * 100));
+                item.put("id", String.valueOf(i));
+                items.add(item);
+            }
+            Map<String, Object> data = new HashMap<>();
+            data.put("items", items);
+            XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(out.toByteArray()), config);
+            long cost = Benchmark.nanos(() -> template.render(data));
+            assertEquals(rows + 1, template.getXWPFDocument().getTables().get(0).getRows().size());
+            template.close();
+            Benchmark.report("hack loop table of %d rows: %.2f ms, %.2f us/row", rows, cost / 1e6,
+                    cost / 1e3 / rows);
+        }
+    }
+
+}
@@ -1,17 +1,29 @@
 package com.deepoove.poi.tl.policy;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.config.ConfigureBuilder;
 import com.deepoove.poi.data.Pictures;
 import com.deepoove.poi.plugin.table.HackLoopTableRenderPolicy;
+import com.deepoove.poi.resolver.DefaultElementTemplateFactory;
+import com.deepoove.poi.template.run.RunTemplate;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
 
 @DisplayName("Example for HackLoop Table")
 public class HackLoopTableRenderPolicyTest {
@@ -66,4 +78,71 @@ public class HackLoopTableRenderPolicyTest {
         template.writeToFile("out_render_looprow.docx");
     }
 
+    @Test
+    public void testRenderRowsTwice() throws Exception {
+        HackLoopTableRenderPolicy policy = new HackLoopTableRenderPolicy();
+        Configure config = Configure.builder().bind("items", policy).build();
+        for (int round = 1; round <= 2; round++) {
+            XWPFDocument doc = new XWPFDocument();
+            XWPFTable table = doc.createTable(3, 2);
+            table.getRow(0).getCell(0).setText("{{items}}");
+            table.getRow(1).getCell(0).setText("[name]");
+            table.getRow(1).getCell(1).setText("[a] and [b]");
+            table.getRow(2).getCell(0).setText("end");
+
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int i = 0; i < round * 2; i++) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("name", "item" + i);
+                item.put("a", i);
+                item.put("b", i * round);
+                items.add(item);
+            }
+            Map<String, Object> model = new HashMap<>();
+            model.put("items", items);
+            XWPFTemplate template = XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc), config).render(model);
+            XWPFTable result = XWPFTestSupport.readNewDocument(template).getTableArray(0);
+
+            assertEquals(round * 2 + 2, result.getRows().size());
+            for (int i = 0; i < round * 2; i++) {
+                assertEquals("item" + i, result.getRow(i + 1).getCell(0).getText());
+                assertEquals(i + " and " + (i * round), result.getRow(i + 1).getCell(1).getText());
+            }
+            assertEquals("end", result.getRow(round * 2 + 1).getCell(0).getText());
+        }
+    }
+
+    @Test
+    public void testConfigChangedBetweenRenders() throws Exception {
+        HackLoopTableRenderPolicy policy = new HackLoopTableRenderPolicy();
+        ConfigureBuilder builder = Configure.builder().bind("items", policy);
+        Configure config = builder.build();
+        Map<String, Object> item = new HashMap<>();
+        item.put("name", "poi-tl");
+        item.put("title", "changed");
+        Map<String, Object> model = new HashMap<>();
+        model.put("items", Collections.singletonList(item));
+
+        assertEquals("poi-tl", renderRow(config, model));
+        // the factory set after the first render is used by the rows
+        builder.setElementTemplateFactory(new DefaultElementTemplateFactory() {
+            @Override
+            public RunTemplate createRunTemplate(Configure config, String tag, XWPFRun run) {
+                RunTemplate template = super.createRunTemplate(config, tag, run);
+                if ("name".equals(template.getTagName())) template.setTagName("title");
+                return template;
+            }
+        });
+        assertEquals("changed", renderRow(config, model));
+    }
+
+    private String renderRow(Configure config, Map<String, Object> model) throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFTable table = doc.createTable(2, 1);
+        table.getRow(0).getCell(0).setText("{{items}}");
+        table.getRow(1).getCell(0).setText("[name]");
+        XWPFTemplate template = XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc), config).render(model);
+        return XWPFTestSupport.readNewDocument(template).getTableArray(0).getRow(1).getCell(0).getText();
+    }
+
 }
@@ -0,0 +1,72 @@
+package com.deepoove.poi.tl.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.DisplayName;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblGrid;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.plugin.table.LoopColumnTableRenderPolicy;
+import com.deepoove.poi.tl.source.Benchmark;
+import com.deepoove.poi.tl.source.BenchmarkTest;
+import com.deepoove.poi.util.TableTools;
+
+@DisplayName("Loop column table benchmark")
+public class LoopColumnTableBenchmarkTest {
+
+    static final int[] COLUMNS = { 200, 400, 800, 1600 };
+    static final int ROWS = 20;
+
+    @BenchmarkTest
+    public void benchmarkRender() throws Exception {
+        Configure config = Configure.builder().bind("items", new LoopColumnTableRenderPolicy()).build();
+        XWPFDocument doc = new XWPFDocument();
+        XWPFTable table = doc.createTable(ROWS, 4);
+        for (int i = 0; i < ROWS; i++) {
+            table.getRow(i).getCell(0).setText("label " + i);
+            table.getRow(i).getCell(1).setText("[value" + (i % 4) + "]");
+            table.getRow(i).getCell(1).setWidth("1440");
+            table.getRow(i).getCell(2).setText("fixed");
+            table.getRow(i).getCell(3).setText("total");
+        }
+        table.getRow(0).getCell(0).setText("{{items}}");
+        CTTblGrid tblGrid = TableTools.getTblGrid(table);
+        for (int j = tblGrid.sizeOfGridColArray(); j < 4; j++) {
+            tblGrid.addNewGridCol().setW(BigInteger.valueOf(1440));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+        doc.close();
+
+        for (int cols : COLUMNS) {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int j = 0; j < cols; j++) {
+                Map<String, Object> item = new HashMap<>();
+                for (int k = 0; k < 4; k++) {
+                    item.put("value" + k, k + "-" + j);
+                }
+                items.add(item);
+            }
+            Map<String, Object> data = new HashMap<>();
+            data.put("items", items);
+            XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(out.toByteArray()), config);
+            long cost = Benchmark.nanos(() -> template.render(data));
+            assertEquals(cols + 3, template.getXWPFDocument().getTables().get(0).getRow(ROWS - 1).getTableCells()
+                    .size());
+            template.close();
+            Benchmark.report("loop column table of %d columns x %d rows: %.2f ms", cols, ROWS, cost / 1e6);
+        }
+    }
+
+}
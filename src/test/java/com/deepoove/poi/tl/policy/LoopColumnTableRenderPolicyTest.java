@@ -1,18 +1,28 @@
 package com.deepoove.poi.tl.policy;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblGrid;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure;
 import com.deepoove.poi.data.Pictures;
 import com.deepoove.poi.plugin.table.LoopColumnTableRenderPolicy;
 import com.deepoove.poi.policy.RenderPolicy;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+import com.deepoove.poi.util.TableTools;
 
 @DisplayName("Example for HackLoop Table")
 public class LoopColumnTableRenderPolicyTest {
@@ -69,4 +79,42 @@ public class LoopColumnTableRenderPolicyTest {
         template.writeToFile("out_render_loopcolumn.docx");
     }
 
+    @Test
+    public void testLoopManyColumnsWithSpanningRow() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFTable table = doc.createTable(2, 3);
+        table.getRow(0).getCell(0).setText("{{cols}}");
+        table.getRow(0).getCell(1).setText("[name]");
+        table.getRow(0).getCell(1).setWidth("3000");
+        table.getRow(0).getCell(2).setText("end");
+        // the second row has a cell spanning the template column
+        table.getRow(1).getCell(0).getCTTc().addNewTcPr().addNewGridSpan().setVal(BigInteger.valueOf(2));
+        table.getRow(1).removeCell(1);
+        table.getRow(1).getCtRow().removeTc(1);
+        table.getRow(1).getCell(1).setText("c");
+        CTTblGrid tblGrid = TableTools.getTblGrid(table);
+        for (int j = tblGrid.sizeOfGridColArray(); j < 3; j++) {
+            tblGrid.addNewGridCol().setW(BigInteger.valueOf(3000));
+        }
+
+        List<Map<String, Object>> cols = new ArrayList<>();
+        for (int j = 0; j < 200; j++) {
+            cols.add(Collections.singletonMap("name", "col" + j));
+        }
+        Configure config = Configure.builder().bind("cols", new LoopColumnTableRenderPolicy()).build();
+        XWPFTemplate template = XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc), config)
+                .render(Collections.singletonMap("cols", cols));
+        XWPFDocument document = XWPFTestSupport.readNewDocument(template);
+        XWPFTable result = document.getTables().get(0);
+        assertEquals(202, result.getRow(0).getTableCells().size());
+        assertEquals("col0", result.getRow(0).getCell(1).getText());
+        assertEquals("col199", result.getRow(0).getCell(200).getText());
+        assertEquals("end", result.getRow(0).getCell(201).getText());
+        assertEquals(15, result.getRow(0).getCell(1).getWidth());
+        assertEquals(2, result.getRow(1).getTableCells().size());
+        assertEquals(201, result.getRow(1).getCell(0).getCTTc().getTcPr().getGridSpan().getVal().intValue());
+        assertEquals(202, TableTools.getTblGrid(result).sizeOfGridColArray());
+        document.close();
+    }
+
 }
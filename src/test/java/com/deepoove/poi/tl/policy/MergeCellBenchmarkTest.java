@@ -0,0 +1,80 @@
+package com.deepoove.poi.tl.policy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.DisplayName;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.data.MergeCellRule;
+import com.deepoove.poi.data.MergeCellRule.Grid;
+import com.deepoove.poi.data.MergeCellRule.MergeCellRuleBuilder;
+import com.deepoove.poi.data.Rows;
+import com.deepoove.poi.data.Tables;
+import com.deepoove.poi.data.Tables.TableBuilder;
+import com.deepoove.poi.tl.source.Benchmark;
+import com.deepoove.poi.tl.source.BenchmarkTest;
+
+@DisplayName("Merge cell benchmark")
+public class MergeCellBenchmarkTest {
+
+    static final int[] MERGES = { 10000, 50000, 100000 };
+
+    @BenchmarkTest
+    public void benchmarkMerge() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{#table}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+        doc.close();
+
+        for (int merges : MERGES) {
+            // each two rows: a 2 x 2 matrix and two horizontal matrixes
+            int rows = merges / 3 * 2;
+            MergeCellRule[] rule = new MergeCellRule[1];
+            long buildCost = Benchmark.nanos(() -> {
+                MergeCellRuleBuilder builder = MergeCellRule.builder();
+                for (int i = 0; i < rows; i += 2) {
+                    builder.map(Grid.of(i, 0), Grid.of(i + 1, 1));
+                    builder.map(Grid.of(i, 2), Grid.of(i, 3));
+                    builder.map(Grid.of(i + 1, 2), Grid.of(i + 1, 3));
+                }
+                rule[0] = builder.build();
+            });
+
+            long plainCost = render(out, createTable(rows).create(), rows, 4);
+            long mergeCost = render(out, createTable(rows).mergeRule(rule[0]).create(), rows, 2);
+            Benchmark.report("%d merges of %d rows: build %.2f ms, render %.2f ms, without merge %.2f ms",
+                    rule[0].getMapping().size(), rows, buildCost / 1e6, mergeCost / 1e6, plainCost / 1e6);
+        }
+    }
+
+    private long render(ByteArrayOutputStream out, Object table, int rows, int lastRowCells) throws Exception {
+        Map<String, Object> data = new HashMap<>();
+        data.put("table", table);
+        XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(out.toByteArray()));
+        long cost = Benchmark.nanos(() -> template.render(data));
+        XWPFTable result = template.getXWPFDocument().getTables().get(0);
+        assertEquals(rows, result.getRows().size());
+        assertEquals(lastRowCells, result.getRow(rows - 1).getTableCells().size());
+        assertEquals(lastRowCells, result.getRow(rows - 1).getCtRow().sizeOfTcArray());
+        template.close();
+        return cost;
+    }
+
+    private TableBuilder createTable(int rows) {
+        TableBuilder builder = Tables.ofWidth(16.0);
+        for (int i = 0; i < rows; i++) {
+            builder.addRow(Rows.of("cell " + i + "-0", "cell " + i + "-1", "cell " + i + "-2", "cell " + i + "-3")
+                    .create());
+        }
+        return builder;
+    }
+
+}
@@ -1,10 +1,19 @@
 package com.deepoove.poi.tl.policy;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure;
@@ -19,7 +28,11 @@ import com.deepoove.poi.data.Rows;
 import com.deepoove.poi.data.TableRenderData;
 import com.deepoove.poi.data.Tables;
 import com.deepoove.poi.data.Texts;
+import com.deepoove.poi.data.style.CellStyle;
+import com.deepoove.poi.data.style.Style;
 import com.deepoove.poi.policy.TableRenderPolicy;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
 
 @DisplayName("Table Render test case")
 public class TableRenderTest {
@@ -71,4 +84,77 @@ public class TableRenderTest {
                 .writeToFile("out_render_tablev2.docx");
 
     }
+
+    @Test
+    public void testRenderRowsSharingStyles() throws Exception {
+        CellStyle cellStyle = new CellStyle();
+        cellStyle.setBackgroundColor("EEEEEE");
+        Style textStyle = Style.builder().buildBold().build();
+        TableRenderData table = Tables.ofWidth(14.0).addRow(Rows.of("name", "value").bgColor("f58d71").create())
+                .create();
+        for (int i = 0; i < 10; i++) {
+            CellRenderData name = Cells.of(Texts.of(" name " + i).style(textStyle).create()).create();
+            name.setCellStyle(cellStyle);
+            table.addRow(Rows.of(name, Cells.create("value " + i)).create());
+        }
+        table.setMergeRule(MergeCellRule.builder().map(Grid.of(9, 1), Grid.of(10, 1)).build());
+        Map<String, Object> datas = new HashMap<>();
+        datas.put("table", table);
+
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{#table}}");
+        XWPFTemplate template = XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc)).render(datas);
+        XWPFDocument document = XWPFTestSupport.readNewDocument(template);
+        XWPFTable xwpfTable = document.getTables().get(0);
+        assertEquals(11, xwpfTable.getRows().size());
+        assertEquals("F58D71", xwpfTable.getRow(0).getCell(0).getColor());
+        for (int i = 0; i < 10; i++) {
+            XWPFTableRow row = xwpfTable.getRow(i + 1);
+            assertEquals(" name " + i, row.getCell(0).getText());
+            assertEquals("EEEEEE", row.getCell(0).getColor());
+            assertTrue(row.getCell(0).getParagraphs().get(0).getRuns().get(0).isBold());
+            assertEquals("value " + i, row.getCell(1).getText());
+        }
+        assertEquals(STMerge.RESTART, xwpfTable.getRow(9).getCell(1).getCTTc().getTcPr().getVMerge().getVal());
+        document.close();
+    }
+
+    @Test
+    public void testRenderRowsWithNullRow() throws Exception {
+        TableRenderData table = Tables.of(Rows.create("name", "value")).create();
+        for (int i = 0; i < 3; i++) {
+            table.addRow(Rows.create("name " + i, "value " + i));
+        }
+        table.getRows().add(2, null);
+
+        NiceXWPFDocument doc = new NiceXWPFDocument();
+        XWPFRun run = doc.createParagraph().createRun();
+        TableRenderPolicy.Helper.renderTable(run, table);
+        XWPFTable xwpfTable = doc.getTables().get(0);
+        assertEquals(5, xwpfTable.getRows().size());
+        assertEquals("name 0", xwpfTable.getRow(1).getCell(0).getText());
+        assertEquals("", xwpfTable.getRow(2).getCell(0).getText());
+        assertEquals("value 2", xwpfTable.getRow(4).getCell(1).getText());
+        doc.close();
+    }
+
+    @Test
+    public void testRenderRowsOfDifferentSizes() throws Exception {
+        TableRenderData fewer = Tables.of(Rows.create("name", "value")).create();
+        fewer.addRow(Rows.create("name 0", "value 0"));
+        fewer.addRow(Rows.create("name 1"));
+        TableRenderData more = Tables.of(Rows.create("name", "value")).create();
+        more.addRow(Rows.create("name 0", "value 0"));
+        more.addRow(Rows.create("name 1", "value 1", "other 1"));
+
+        for (TableRenderData table : new TableRenderData[] { fewer, more }) {
+            NiceXWPFDocument doc = new NiceXWPFDocument();
+            XWPFRun run = doc.createParagraph().createRun();
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> TableRenderPolicy.Helper.renderTable(run, table));
+            assertEquals("Number of cells and render data should be the same!", e.getMessage());
+            doc.close();
+        }
+    }
+
 }
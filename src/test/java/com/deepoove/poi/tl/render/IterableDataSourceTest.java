@@ -0,0 +1,132 @@
+package com.deepoove.poi.tl.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.data.RenderDataSource;
+import com.deepoove.poi.plugin.table.HackLoopTableRenderPolicy;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+
+@DisplayName("Loop of stream, spliterator and data source")
+public class IterableDataSourceTest {
+
+    @Test
+    public void testStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Map<String, Object>> stream = IntStream.range(0, 3).mapToObj(this::item)
+                .onClose(() -> closed.set(true));
+        assertEquals("0|1|2|", renderBlock(stream));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testSpliterator() throws IOException {
+        List<Map<String, Object>> items = Arrays.asList(item(0), item(1));
+        assertEquals("0|1|", renderBlock(items.spliterator()));
+    }
+
+    @Test
+    public void testCloseableIterable() throws IOException {
+        CloseableItems items = new CloseableItems(Arrays.asList(item(0), item(1)));
+        assertEquals("0|1|", renderBlock(items));
+        assertTrue(items.closed);
+    }
+
+    @Test
+    public void testPaging() throws IOException {
+        List<Integer> offsets = new ArrayList<>();
+        RenderDataSource<Map<String, Object>> source = RenderDataSource.paging(2, (offset, size) -> {
+            offsets.add(offset);
+            return IntStream.range(offset, Math.min(offset + size, 5)).mapToObj(this::item)
+                    .collect(Collectors.toList());
+        });
+        assertEquals("0|1|2|3|4|", renderBlock(source));
+        assertEquals(Arrays.asList(0, 2, 4), offsets);
+    }
+
+    @Test
+    public void testEmptyPaging() throws IOException {
+        RenderDataSource<Map<String, Object>> source = RenderDataSource.paging(2, (offset, size) -> null);
+        assertEquals("", renderBlock(source));
+    }
+
+    @Test
+    public void testHackLoopTableOfStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        XWPFDocument doc = new XWPFDocument();
+        XWPFTable table = doc.createTable(2, 1);
+        table.getRow(0).getCell(0).setText("{{items}}");
+        table.getRow(1).getCell(0).setText("[name]");
+        Configure config = Configure.builder().bind("items", new HackLoopTableRenderPolicy()).build();
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("items", IntStream.range(0, 3).mapToObj(this::item).onClose(() -> closed.set(true)));
+        XWPFTemplate template = XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc), config).render(data);
+        XWPFDocument document = XWPFTestSupport.readNewDocument(template);
+        XWPFTable result = document.getTableArray(0);
+        assertEquals(4, result.getRows().size());
+        assertEquals("2", result.getRow(3).getCell(0).getText());
+        assertTrue(closed.get());
+    }
+
+    private String renderBlock(Object items) throws IOException {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{?items}}");
+        doc.createParagraph().createRun().setText("{{name}}");
+        doc.createParagraph().createRun().setText("{{/items}}");
+
+        XWPFTemplate template = XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc))
+                .render(Collections.singletonMap("items", items));
+        XWPFDocument document = XWPFTestSupport.readNewDocument(template);
+        StringBuilder text = new StringBuilder();
+        for (XWPFParagraph paragraph : document.getParagraphs()) {
+            if (!paragraph.getText().isEmpty()) text.append(paragraph.getText()).append("|");
+        }
+        return text.toString();
+    }
+
+    static class CloseableItems implements Iterable<Map<String, Object>>, AutoCloseable {
+        private final List<Map<String, Object>> items;
+        boolean closed;
+
+        CloseableItems(List<Map<String, Object>> items) {
+            this.items = items;
+        }
+
+        @Override
+        public Iterator<Map<String, Object>> iterator() {
+            return items.iterator();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private Map<String, Object> item(int i) {
+        return Collections.singletonMap("name", String.valueOf(i));
+    }
+
+}
@@ -2,8 +2,14 @@ package com.deepoove.poi.tl.render;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
@@ -12,6 +18,8 @@ import org.junit.jupiter.api.Test;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.render.compute.DefaultELRenderDataCompute;
+import com.deepoove.poi.render.compute.RenderDataCompute;
 import com.deepoove.poi.tl.source.XWPFTestSupport;
 
 public class IterableEnvTest {
@@ -51,4 +59,75 @@ public class IterableEnvTest {
                 text);
     }
 
+    @Test
+    public void testEnvKeptAcrossItems() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{?list}}");
+        doc.createParagraph().createRun().setText("{{=#root}}");
+        doc.createParagraph().createRun().setText("{{/list}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+        byte[] bytes = out.toByteArray();
+        Map<String, Object> model = new HashMap<>();
+        model.put("list", Arrays.asList("a", "b", "c"));
+
+        // the computes which are not resettable keep the env of their items
+        List<Map<String, Object>> envs = new ArrayList<>();
+        Configure config = Configure.builder().setRenderDataComputeFactory(envModel -> {
+            if (!envModel.getEnv().isEmpty()) envs.add(envModel.getEnv());
+            RenderDataCompute compute = new DefaultELRenderDataCompute(envModel, false);
+            return compute::compute;
+        }).build();
+        XWPFTemplate.compile(new ByteArrayInputStream(bytes), config).render(model).close();
+        assertEquals(3, envs.size());
+        for (int i = 0; i < envs.size(); i++) {
+            assertEquals(i, envs.get(i).get("_index"));
+            assertEquals(i == 2, envs.get(i).get("_is_last"));
+        }
+
+        // the env returned as the data of tag is not advanced
+        List<Object> datas = new ArrayList<>();
+        config = Configure.builder().useSpringEL().bind("#root", (eleTemplate, data, template) -> datas.add(data))
+                .build();
+        XWPFTemplate.compile(new ByteArrayInputStream(bytes), config).render(model).close();
+        assertEquals(3, datas.size());
+        for (int i = 0; i < datas.size(); i++) {
+            assertEquals(i, ((Map<?, ?>) datas.get(i)).get("_index"));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    @Test
+    public void testEnvOfNestedLoops() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{?groups}}");
+        doc.createParagraph().createRun().setText("{{_index}}-{{name}}-{{_is_last}}");
+        doc.createParagraph().createRun().setText("{{?items}}");
+        doc.createParagraph().createRun().setText("{{_index}}:{{value}}:{{_has_next}}");
+        doc.createParagraph().createRun().setText("{{/items}}");
+        doc.createParagraph().createRun().setText("{{/groups}}");
+
+        XWPFTemplate template = XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc));
+        template.render(new HashMap<String, Object>() {
+            {
+                put("groups", Arrays.asList(group("a", "x", "y"), group("b", "z")));
+            }
+        });
+        XWPFDocument newDocument = XWPFTestSupport.readNewDocument(template);
+        StringBuilder text = new StringBuilder();
+        newDocument.getParagraphs().forEach(p -> text.append(p.getText()).append("|"));
+        assertEquals("0-a-false|0:x:true|1:y:false|1-b-true|0:z:false|", text.toString());
+    }
+
+    private Map<String, Object> group(String name, String... items) {
+        Map<String, Object> group = new HashMap<String, Object>();
+        group.put("name", name);
+        List<Map<String, Object>> values = new ArrayList<Map<String, Object>>();
+        for (String item : items) {
+            values.add(Collections.singletonMap("value", item));
+        }
+        group.put("items", values);
+        return group;
+    }
+
 }
@@ -0,0 +1,89 @@
+package com.deepoove.poi.tl.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.tl.source.Benchmark;
+import com.deepoove.poi.tl.source.BenchmarkTest;
+
+@DisplayName("Iterable render benchmark")
+public class IterableRenderBenchmarkTest {
+
+    static final int[] ITEMS = { 500, 1000, 2000, 4000, 8000 };
+    static final int ROUNDS = 3;
+
+    static double minInflateRatio;
+
+    @BeforeAll
+    public static void allowCompressedDocument() {
+        // the generated document is highly compressed
+        minInflateRatio = ZipSecureFile.getMinInflateRatio();
+        ZipSecureFile.setMinInflateRatio(0);
+    }
+
+    @AfterAll
+    public static void restoreMinInflateRatio() {
+        ZipSecureFile.setMinInflateRatio(minInflateRatio);
+    }
+
+    @BenchmarkTest
+    public void benchmarkLoop() throws Exception {
+        byte[] bytes = loopTemplate();
+        // warm up
+        render(bytes, 200);
+        for (int items : ITEMS) {
+            long best = Benchmark.best(ROUNDS, () -> render(bytes, items));
+            Benchmark.report("render loop of %d items: %.2f ms, %.2f us/item", items, best / 1e6, best / 1e3 / items);
+        }
+    }
+
+    private long render(byte[] bytes, int items) throws Exception {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("name", "name" + i);
+            item.put("value", i);
+            list.add(item);
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("items", list);
+        XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(bytes));
+        long cost = Benchmark.nanos(() -> template.render(data));
+        // 2 paragraphs and 1 table of each item, the end paragraph
+        assertEquals(items * 3 + 1, template.getXWPFDocument().getBodyElements().size());
+        template.close();
+        return cost;
+    }
+
+    private byte[] loopTemplate() throws IOException {
+        try (XWPFDocument doc = new XWPFDocument()) {
+            doc.createParagraph().createRun().setText("{{?items}}");
+            doc.createParagraph().createRun().setText("{{name}} is {{value}}");
+            doc.createParagraph().createRun().setText("Lorem ipsum dolor sit amet");
+            XWPFTable table = doc.createTable(1, 2);
+            table.getRow(0).getCell(0).setText("{{name}}");
+            table.getRow(0).getCell(1).setText("{{value}}");
+            doc.createParagraph().createRun().setText("{{/items}}");
+            doc.createParagraph().createRun().setText("end");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            doc.write(out);
+            return out.toByteArray();
+        }
+    }
+
+}
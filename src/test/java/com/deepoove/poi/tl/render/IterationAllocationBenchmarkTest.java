@@ -0,0 +1,92 @@
+package com.deepoove.poi.tl.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.DisplayName;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.IterationEnv;
+import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.render.compute.RenderDataComputeFactory;
+import com.deepoove.poi.render.compute.ResettableRenderDataCompute;
+import com.deepoove.poi.render.processor.DocumentProcessor;
+import com.deepoove.poi.template.MetaTemplate;
+import com.deepoove.poi.tl.source.Benchmark;
+import com.deepoove.poi.tl.source.BenchmarkTest;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+
+/**
+ * Bytes allocated per loop item by the env, compute and processor
+ */
+@DisplayName("Iteration allocation benchmark")
+public class IterationAllocationBenchmarkTest {
+
+    static final int ITEMS = 1000000;
+    static final int ROUNDS = 3;
+
+    @BenchmarkTest
+    public void benchmarkAllocation() throws Exception {
+        XWPFTemplate template = XWPFTemplate.compile(XWPFTestSupport.readInputStream(new XWPFDocument()));
+        RenderDataComputeFactory factory = Configure.createDefault().getRenderDataComputeFactory();
+        List<MetaTemplate> templates = Collections.emptyList();
+        Map<String, Object> root = Collections.singletonMap("name", "poi-tl");
+
+        Benchmark.rounds(ROUNDS, round -> {
+            // an env map, a compute and a processor per item
+            long perItem = Benchmark.allocatedBytes(() -> {
+                for (int index = 0; index < ITEMS; index++) {
+                    Map<String, Object> env = new HashMap<>();
+                    boolean hasNext = index < ITEMS - 1;
+                    env.put("_is_first", index == 0);
+                    env.put("_is_last", !hasNext);
+                    env.put("_has_next", hasNext);
+                    env.put("_is_even_item", index % 2 == 1);
+                    env.put("_is_odd_item", index % 2 == 0);
+                    env.put("_index", index);
+                    RenderDataCompute compute = factory.newCompute(EnvModel.of(root, env));
+                    new DocumentProcessor(template, template.getResolver(), compute).process(templates);
+                    eval(compute, index);
+                }
+            }) / ITEMS;
+
+            // one env, compute and processor advanced through the items
+            long reusedPerItem = Benchmark.allocatedBytes(() -> {
+                IterationEnv env = new IterationEnv();
+                EnvModel model = EnvModel.of(null, env);
+                ResettableRenderDataCompute compute = null;
+                DocumentProcessor processor = null;
+                for (int index = 0; index < ITEMS; index++) {
+                    env.next(index < ITEMS - 1);
+                    model.setRoot(root);
+                    if (null == compute) {
+                        compute = (ResettableRenderDataCompute) factory.newCompute(model);
+                        processor = new DocumentProcessor(template, template.getResolver(), compute);
+                    } else {
+                        compute.reset(model);
+                    }
+                    processor.process(templates);
+                    eval(compute, index);
+                }
+            }) / ITEMS;
+
+            Benchmark.report("loop env of %d items, round %d: new per item %d B/item, reused %d B/item", ITEMS, round,
+                    perItem, reusedPerItem);
+        });
+        template.close();
+    }
+
+    private void eval(RenderDataCompute compute, int index) {
+        assertEquals("poi-tl", compute.compute("name"));
+        assertEquals(index, compute.compute("_index"));
+        assertEquals(index == ITEMS - 1, compute.compute("_is_last"));
+    }
+
+}
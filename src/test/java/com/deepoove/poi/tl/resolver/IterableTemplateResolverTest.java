@@ -1,18 +1,26 @@
 package com.deepoove.poi.tl.resolver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.resolver.TemplateIndex;
+import com.deepoove.poi.resolver.TemplateResolver;
 import com.deepoove.poi.template.InlineIterableTemplate;
 import com.deepoove.poi.template.IterableTemplate;
 import com.deepoove.poi.template.MetaTemplate;
 import com.deepoove.poi.template.run.RunTemplate;
+import com.deepoove.poi.xwpf.BodyContainer;
+import com.deepoove.poi.xwpf.BodyContainerFactory;
 
 @DisplayName("Iterable template resolver test case")
 public class IterableTemplateResolverTest {
@@ -31,6 +39,25 @@ public class IterableTemplateResolverTest {
 
     }
 
+    @Test
+    public void testResolveBlockByIndex() throws Exception {
+        XWPFTemplate template = XWPFTemplate.compile("src/test/resources/template/iterable_if1.docx");
+        IterableTemplate iterable = (IterableTemplate) template.getElementTemplates().get(1);
+        BodyContainer bodyContainer = BodyContainerFactory.getBodyContainer(iterable);
+        int start = bodyContainer.getPosOfParagraphCTP(((XWPFParagraph) iterable.getStartRun().getParent()).getCTP());
+        int end = bodyContainer.getPosOfParagraphCTP(((XWPFParagraph) iterable.getEndRun().getParent()).getCTP());
+        List<IBodyElement> block = new ArrayList<>(bodyContainer.getBodyElements().subList(start + 1, end));
+
+        TemplateIndex index = TemplateIndex.of(block, iterable.getTemplates(), template.getConfig());
+        List<MetaTemplate> templates = new TemplateResolver(template.getConfig()).resolveBodyElements(block, index);
+        assertEquals(iterable.getTemplates().toString(), templates.toString());
+        assertSame(((RunTemplate) iterable.getTemplates().get(0)).getRun(),
+                ((RunTemplate) templates.get(0)).getRun());
+        assertTrue(templates.get(1) instanceof InlineIterableTemplate);
+        assertTrue(templates.get(2) instanceof IterableTemplate);
+        template.close();
+    }
+
     private void testResolvedMetaTemplate(List<MetaTemplate> elementTemplates) {
         assertTrue(elementTemplates.get(0) instanceof InlineIterableTemplate);
         assertEquals(elementTemplates.get(0).variable(), "{{?isShowTitle}}");
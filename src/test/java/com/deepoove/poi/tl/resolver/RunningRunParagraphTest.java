@@ -148,4 +148,25 @@ public class RunningRunParagraphTest {
 
     }
 
+    @Test
+    public void testSkipWithoutPrefix() throws IOException {
+        TemplateResolver templateResolver = new TemplateResolver(Configure.createDefault());
+        XWPFDocument doc = new XWPFDocument();
+        XWPFParagraph plain = doc.createParagraph();
+        plain.createRun().setText("no tag}}");
+        plain.createRun().setText("here");
+        XWPFParagraph splited = doc.createParagraph();
+        splited.createRun().setText("Hi {");
+        splited.createRun().setText("{name}}!");
+
+        List<MetaTemplate> templates = templateResolver.resolveDocument(doc);
+        assertEquals(1, templates.size());
+        assertEquals("{{name}}", templates.get(0).variable());
+        assertEquals(2, plain.getRuns().size());
+        assertEquals("no tag}}", plain.getRuns().get(0).text());
+        assertEquals(3, splited.getRuns().size());
+
+        doc.close();
+    }
+
 }
@@ -0,0 +1,125 @@
+package com.deepoove.poi.tl.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.resolver.RunningRunParagraph;
+import com.deepoove.poi.resolver.TagScanner;
+import com.deepoove.poi.resolver.TemplateResolver;
+import com.deepoove.poi.tl.source.Benchmark;
+import com.deepoove.poi.tl.source.BenchmarkTest;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
+
+@DisplayName("Tag scanner benchmark")
+public class TagScannerBenchmarkTest {
+
+    static final int PARAGRAPHS = 20000;
+    static final int ROUNDS = 5;
+
+    TemplateResolver resolver = new TemplateResolver(Configure.createDefault());
+
+    static double minInflateRatio;
+
+    @BeforeAll
+    public static void allowCompressedDocument() {
+        // the generated document is highly compressed
+        minInflateRatio = ZipSecureFile.getMinInflateRatio();
+        ZipSecureFile.setMinInflateRatio(0);
+    }
+
+    @AfterAll
+    public static void restoreMinInflateRatio() {
+        ZipSecureFile.setMinInflateRatio(minInflateRatio);
+    }
+
+    @BenchmarkTest
+    public void benchmarkText() throws Exception {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < PARAGRAPHS; i++) {
+            texts.add(paragraphText(i));
+        }
+        Pattern pattern = resolver.getTemplatePattern();
+        TagScanner scanner = resolver.getTagScanner();
+
+        int expected = count(texts, text -> pattern.matcher(text)::find);
+        Benchmark.rounds(ROUNDS, round -> {
+            long regex = Benchmark
+                    .nanos(() -> assertEquals(expected, count(texts, text -> pattern.matcher(text)::find)));
+            long scan = Benchmark
+                    .nanos(() -> assertEquals(expected, count(texts, text -> scanner.matcher(text)::find)));
+            report("find tags of " + texts.size() + " paragraphs", round, regex, scan);
+        });
+    }
+
+    @BenchmarkTest
+    public void benchmarkDocument() throws Exception {
+        byte[] bytes = largeDocument();
+        Pattern pattern = resolver.getTemplatePattern();
+        TagScanner scanner = resolver.getTagScanner();
+        Benchmark.rounds(ROUNDS, round -> {
+            long regex = resolve(bytes, paragraph -> new RunningRunParagraph(paragraph, pattern).refactorRun());
+            long scan = resolve(bytes, paragraph -> new RunningRunParagraph(paragraph, scanner).refactorRun());
+            report("refactor runs of " + PARAGRAPHS + " paragraphs", round, regex, scan);
+        });
+    }
+
+    private int count(List<String> texts, Function<String, BooleanSupplier> finder) {
+        int count = 0;
+        for (String text : texts) {
+            BooleanSupplier find = finder.apply(text);
+            while (find.getAsBoolean()) count++;
+        }
+        return count;
+    }
+
+    private long resolve(byte[] bytes, Consumer<XWPFParagraph> refactor) throws Exception {
+        try (NiceXWPFDocument doc = new NiceXWPFDocument(new ByteArrayInputStream(bytes))) {
+            return Benchmark.nanos(() -> doc.getParagraphs().forEach(refactor));
+        }
+    }
+
+    private byte[] largeDocument() throws IOException {
+        try (XWPFDocument doc = new XWPFDocument()) {
+            for (int i = 0; i < PARAGRAPHS; i++) {
+                XWPFParagraph paragraph = doc.createParagraph();
+                String text = paragraphText(i);
+                // split the text into runs of 8 characters
+                for (int j = 0; j < text.length(); j += 8) {
+                    paragraph.createRun().setText(text.substring(j, Math.min(text.length(), j + 8)));
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            doc.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private String paragraphText(int i) {
+        String text = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut "
+                + "labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco.";
+        if (i % 50 == 0) return text + " {{name" + i + "}} " + text + " {{@logo}}";
+        return text;
+    }
+
+    private void report(String name, int round, long regex, long scan) {
+        Benchmark.report("%s, round %d: regex %.2f ms, scanner %.2f ms", name, round, regex / 1e6, scan / 1e6);
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.deepoove.poi.tl.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.resolver.TagScanner;
+import com.deepoove.poi.resolver.TagScanner.TagMatcher;
+import com.deepoove.poi.resolver.TemplateResolver;
+
+@DisplayName("Tag scanner test case")
+public class TagScannerTest {
+
+    String[] texts = { "", "plain text", "{{name}}", "Hi {{name}}, {{?users}}{{/users}}!", "{{@image}}{{#table}}",
+            "{{*list}} and {{+docx}}", "{{name", "name}}", "{{{name}}", "{{{{name}}", "{{name}}}", "{{ name }}",
+            "{{na me}}", "{{a.b.c}}", "{{a..b}}", "{{.a}}", "{{a.}}", "{{好.123}}", "{{#this}}", "{{##this}}",
+            "{{}}", "{{/}}", "{{a\nb}}", "{{a}}{{b}}", "x{{a}}y{{b", "{{name.toUpperCase()}}",
+            "lowCase:{{nameUpcase:{{name.toUpperCase()}}", "lowCase:{{name}}Upcase:name.toUpperCase()}}",
+            "{{a}b}}", "{{a{b}}", "{{ {a} }}" };
+
+    @Test
+    public void testDefaultGramer() {
+        assertSameAsRegex(Configure.createDefault());
+    }
+
+    @Test
+    public void testSpringELGramer() {
+        assertSameAsRegex(Configure.builder().useSpringEL().build());
+    }
+
+    @Test
+    public void testCustomGramer() {
+        assertSameAsRegex(Configure.builder().buildGramer("${", "}").build());
+        assertSameAsRegex(Configure.builder().buildGramer("${", "}").useSpringEL().build());
+        assertSameAsRegex(Configure.builder().buildGramer("[[", "]]").build());
+    }
+
+    @Test
+    public void testFind() {
+        TagScanner scanner = new TemplateResolver(Configure.createDefault()).getTagScanner();
+        String text = "Hi {{name}}, {{@logo}} and {{bad-tag}}{{end}}";
+        TagMatcher matcher = scanner.matcher(text);
+        assertTrue(matcher.find());
+        assertEquals(3, matcher.start());
+        assertEquals("{{name}}", matcher.group());
+        assertEquals("name", matcher.tag());
+        assertTrue(matcher.find());
+        assertEquals("{{@logo}}", matcher.group());
+        assertEquals("@logo", matcher.tag());
+        assertTrue(matcher.find());
+        assertEquals("{{end}}", matcher.group());
+        assertEquals(text.length(), matcher.end());
+        assertFalse(matcher.find());
+
+        assertEquals("name", scanner.match("{{name}}"));
+        assertNull(scanner.match("{{name}} "));
+        assertNull(scanner.match("{{bad-tag}}"));
+    }
+
+    private void assertSameAsRegex(Configure config) {
+        TemplateResolver resolver = new TemplateResolver(config);
+        Pattern templatePattern = resolver.getTemplatePattern();
+        Pattern gramerPattern = resolver.getGramerPattern();
+        TagScanner scanner = resolver.getTagScanner();
+        String prefix = config.getGramerPrefix();
+        String suffix = config.getGramerSuffix();
+        for (String text : texts) {
+            text = text.replace("{{", prefix).replace("}}", suffix);
+            Matcher expected = templatePattern.matcher(text);
+            TagMatcher actual = scanner.matcher(text);
+            while (expected.find()) {
+                assertTrue(actual.find(), text);
+                assertEquals(expected.start(), actual.start(), text);
+                assertEquals(expected.end(), actual.end(), text);
+                assertEquals(gramerPattern.matcher(expected.group()).replaceAll("").trim(), actual.tag(), text);
+            }
+            assertFalse(actual.find(), text);
+
+            String tag = templatePattern.matcher(text).matches() ? gramerPattern.matcher(text).replaceAll("").trim()
+                    : null;
+            assertEquals(tag, scanner.match(text), text);
+        }
+    }
+
+}
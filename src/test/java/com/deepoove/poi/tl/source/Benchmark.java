@@ -0,0 +1,92 @@
+package com.deepoove.poi.tl.source;
+
+import java.lang.management.ManagementFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timing and reporting of {@link BenchmarkTest}
+ */
+public final class Benchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(Benchmark.class);
+
+    private Benchmark() {
+    }
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Measure {
+        long nanos() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Round {
+        void run(int round) throws Exception;
+    }
+
+    /**
+     * run the rounds in order, the first rounds warm up the jit
+     */
+    public static void rounds(int rounds, Round round) throws Exception {
+        for (int i = 0; i < rounds; i++) {
+            round.run(i);
+        }
+    }
+
+    /**
+     * @return the nanoseconds of the task
+     */
+    public static long nanos(Task task) throws Exception {
+        long start = System.nanoTime();
+        task.run();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * @return the least nanoseconds measured in the rounds
+     */
+    public static long best(int rounds, Measure measure) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            best = Math.min(best, measure.nanos());
+        }
+        return best;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread during the task, same as
+     *         gc.alloc.rate.norm of a gc profiler
+     */
+    public static long allocatedBytes(Task task) throws Exception {
+        long start = allocatedBytes();
+        task.run();
+        return allocatedBytes() - start;
+    }
+
+    /**
+     * @return the used heap after gc
+     */
+    public static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void report(String format, Object... args) {
+        logger.info("[benchmark] {}", String.format(format, args));
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.deepoove.poi.tl.source;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Benchmark test which is skipped by default, run with -Dpoitl.benchmark=true
+ * 
+ * @see Benchmark
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Test
+@EnabledIfSystemProperty(named = "poitl.benchmark", matches = "true")
+public @interface BenchmarkTest {
+
+}
@@ -3,6 +3,7 @@ package com.deepoove.poi.tl.xwpf;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.poi.xwpf.usermodel.IBodyElement;
@@ -99,6 +100,105 @@ public class DocumentBodyContainnerTest {
         assertEquals(container.getPosOfParagraph(paragraph), 3);
     }
 
+    @Test
+    void testInsertParagraphCopy() {
+        paragraph.createRun().setText("copy");
+        XmlCursor newCursor = table.getCTTbl().newCursor();
+        XWPFParagraph copy = container.insertParagraphCopy(newCursor, paragraph.getCTP());
+        newCursor.dispose();
+
+        assertEquals(doc.getParagraphs().size(), 4);
+        assertEquals(copy.getText(), "copy");
+        assertEquals(container.getPosOfParagraph(copy), 3);
+        assertEquals(container.getParaPos(copy), 2);
+        assertEquals(doc.getParagraphArray(2), copy);
+    }
+
+    @Test
+    void testInsertCopyWithPositionIndex() {
+        container.enablePositionIndex();
+        paragraph.createRun().setText("copy");
+        XmlCursor newCursor = table.getCTTbl().newCursor();
+        XWPFParagraph copy = container.insertParagraphCopy(newCursor, paragraph.getCTP());
+        newCursor.dispose();
+        newCursor = table.getCTTbl().newCursor();
+        XWPFTable tableCopy = container.insertTableCopy(newCursor, table.getCTTbl());
+        newCursor.dispose();
+
+        // p-t-p-p-t-t-p-t
+        assertEquals(doc.getParagraphs().size(), 4);
+        assertEquals(doc.getTables().size(), 4);
+        assertEquals(doc.getBodyElements().get(3), copy);
+        assertEquals(doc.getBodyElements().get(4), tableCopy);
+        assertEquals(container.getPosOfParagraphCTP(copy.getCTP()), 3);
+        assertEquals(container.getParaPos(copy), 2);
+        assertEquals(container.getTablePos(tableCopy), 1);
+        assertEquals(container.getTablePos(table), 2);
+        assertEquals(container.getParaPos(doc.getParagraphs().get(3)), 3);
+        assertEquals(copy.getText(), "copy");
+
+        // the xml follows the order of body elements
+        XmlCursor cursor = doc.getDocument().getBody().newCursor();
+        cursor.toFirstChild();
+        for (IBodyElement element : doc.getBodyElements()) {
+            assertEquals(cursor.getObject(), element instanceof XWPFParagraph ? ((XWPFParagraph) element).getCTP()
+                    : ((XWPFTable) element).getCTTbl());
+            cursor.toNextSibling();
+        }
+        cursor.dispose();
+
+        container.removeBodyElement(3);
+        assertEquals(container.getTablePos(tableCopy), 1);
+        assertEquals(container.getPosOfParagraph(paragraph), 2);
+    }
+
+    @Test
+    void testRemoveBodyElementWithPositionIndex() {
+        container.enablePositionIndex();
+        XWPFParagraph last = doc.getParagraphs().get(2);
+        assertEquals(container.getParaPos(paragraph), 1);
+        assertEquals(container.getPosOfParagraphCTP(last.getCTP()), 4);
+
+        // p-t-p-t-p-t => p-t-p-t
+        container.removeBodyElement(3);
+        container.removeBodyElement(2);
+        assertEquals(container.getParaPos(paragraph), -1);
+        assertEquals(container.getTablePos(table), -1);
+        assertEquals(container.getPosOfParagraphCTP(paragraph.getCTP()), -1);
+        assertEquals(container.getPosOfParagraphCTP(last.getCTP()), 2);
+        assertEquals(container.getParaPos(last), 1);
+    }
+
+    @Test
+    void testInsertCopies() {
+        paragraph.createRun().setText("copy");
+        List<IBodyElement> block = Arrays.asList(paragraph, table);
+        XWPFParagraph last = doc.getParagraphs().get(2);
+        for (int indexed = 0; indexed < 2; indexed++) {
+            if (indexed == 1) container.enablePositionIndex();
+            int size = doc.getBodyElements().size();
+            List<IBodyElement> copies = container.insertCopies(last.getCTP(), block, 3);
+
+            assertEquals(copies.size(), 6);
+            assertEquals(doc.getBodyElements().size(), size + 6);
+            for (int i = 0; i < copies.size(); i++) {
+                assertEquals(doc.getBodyElements().get(size - 2 + i), copies.get(i));
+            }
+            assertEquals(((XWPFParagraph) copies.get(4)).getText(), "copy");
+            assertEquals(container.getPosOfElement(copies.get(1)), size - 1);
+            assertEquals(container.getParaPos(last), doc.getParagraphs().size() - 1);
+            assertEquals(container.getTablePos((XWPFTable) copies.get(5)), doc.getTables().size() - 2);
+        }
+        XmlCursor cursor = doc.getDocument().getBody().newCursor();
+        cursor.toFirstChild();
+        for (IBodyElement element : doc.getBodyElements()) {
+            assertEquals(cursor.getObject(), element instanceof XWPFParagraph ? ((XWPFParagraph) element).getCTP()
+                    : ((XWPFTable) element).getCTTbl());
+            cursor.toNextSibling();
+        }
+        cursor.dispose();
+    }
+
     @Test
     void testGetTablePos() {
         assertEquals(container.getTablePos(table), 1);
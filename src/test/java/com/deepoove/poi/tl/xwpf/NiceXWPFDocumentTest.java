@@ -2,6 +2,8 @@ package com.deepoove.poi.tl.xwpf;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -11,18 +13,27 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFPicture;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.deepoove.poi.plugin.comment.XWPFComment;
 import com.deepoove.poi.plugin.comment.XWPFComments;
+import com.deepoove.poi.xwpf.MediaRegistry;
 import com.deepoove.poi.xwpf.NiceXWPFDocument;
 
 @DisplayName("Merge word test case")
@@ -68,6 +79,141 @@ public class NiceXWPFDocumentTest {
 
     }
 
+    @Test
+    public void testMergeRewriteIds() throws Exception {
+        NiceXWPFDocument source = new NiceXWPFDocument(
+                new FileInputStream(new File("src/test/resources/template/render_include_picture.docx")));
+        int sourcePictures = source.getAllEmbeddedPictures().size();
+        assertNotEquals(0, sourcePictures);
+        NiceXWPFDocument target1 = new NiceXWPFDocument(
+                new FileInputStream(new File("src/test/resources/template/render_include_picture.docx")));
+        NiceXWPFDocument target2 = new NiceXWPFDocument(
+                new FileInputStream(new File("src/test/resources/template/render_include_picture.docx")));
+        source = source.merge(Arrays.asList(target1, target2), source.createParagraph().createRun());
+
+        List<XWPFPicture> pictures = source.getAllEmbeddedPictures();
+        assertEquals(sourcePictures * 3, pictures.size());
+        // the relationship ids of merged pictures are rewritten
+        for (XWPFPicture picture : pictures) {
+            assertNotNull(picture.getPictureData());
+        }
+        source.close();
+    }
+
+    @Test
+    public void testMergeInParallel() throws Exception {
+        NiceXWPFDocument sequential = mergeCopies(null);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        NiceXWPFDocument parallel;
+        try {
+            parallel = mergeCopies(executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(sequential.getBodyElements().size(), parallel.getBodyElements().size());
+        for (int i = 0; i < sequential.getParagraphs().size(); i++) {
+            assertEquals(sequential.getParagraphs().get(i).getText(), parallel.getParagraphs().get(i).getText());
+        }
+        List<XWPFPicture> pictures = parallel.getAllEmbeddedPictures();
+        assertEquals(sequential.getAllEmbeddedPictures().size(), pictures.size());
+        for (XWPFPicture picture : pictures) {
+            assertNotNull(picture.getPictureData());
+        }
+        sequential.close();
+        parallel.close();
+    }
+
+    private NiceXWPFDocument mergeCopies(Executor executor) throws Exception {
+        NiceXWPFDocument source = new NiceXWPFDocument(
+                new FileInputStream(new File("src/test/resources/template/render_include_picture.docx")));
+        List<NiceXWPFDocument> merged = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            merged.add(new NiceXWPFDocument(
+                    new FileInputStream(new File("src/test/resources/template/render_include_picture.docx"))));
+        }
+        source.mergeInPlace(merged.iterator(), source.createParagraph().createRun(), executor);
+        source.rebuild();
+        return source;
+    }
+
+    @Test
+    public void testMergeLimitsOpenDocuments() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // the sequential merge closes each document before the next one
+            assertEquals(0, mergeTracked(null, 1));
+            assertTrue(mergeTracked(executor, 2) < 2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return the maximum number of other documents open when the next one is
+     *         retrieved
+     */
+    private int mergeTracked(Executor executor, int parallelism) throws Exception {
+        NiceXWPFDocument source = new NiceXWPFDocument(
+                new FileInputStream(new File("src/test/resources/template/render_include_picture.docx")));
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        Iterator<NiceXWPFDocument> iterator = new Iterator<NiceXWPFDocument>() {
+            int count = 0;
+
+            @Override
+            public boolean hasNext() {
+                return count < 8;
+            }
+
+            @Override
+            public NiceXWPFDocument next() {
+                count++;
+                maximum.accumulateAndGet(open.getAndIncrement(), Math::max);
+                try {
+                    return new NiceXWPFDocument(
+                            new FileInputStream(new File("src/test/resources/template/render_include_picture.docx"))) {
+                        @Override
+                        public void close() throws IOException {
+                            open.decrementAndGet();
+                            super.close();
+                        }
+                    };
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        source.mergeInPlace(iterator, source.createParagraph().createRun(), executor, parallelism);
+        assertEquals(0, open.get());
+        source.close();
+        return maximum.get();
+    }
+
+    @Test
+    public void testMergeReusePictures() throws Exception {
+        NiceXWPFDocument source = new NiceXWPFDocument(
+                new FileInputStream(new File("src/test/resources/template/render_include_picture.docx")));
+        int packagePictures = source.getAllPackagePictures().size();
+        List<NiceXWPFDocument> merged = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            merged.add(new NiceXWPFDocument(
+                    new FileInputStream(new File("src/test/resources/template/render_include_picture.docx"))));
+        }
+        int mergedPictures = merged.get(0).getAllPictures().size();
+        long mergedBytes = merged.get(0).getAllPictures().stream().mapToLong(p -> p.getData().length).sum();
+        source = source.merge(merged, source.createParagraph().createRun());
+
+        // the same pictures are stored once
+        assertEquals(packagePictures, source.getAllPackagePictures().size());
+        MediaRegistry registry = source.getMediaRegistry();
+        assertEquals(mergedPictures * 2, registry.getHitCount());
+        assertEquals(mergedBytes * 2, registry.getSavedBytes());
+        for (XWPFPicture picture : source.getAllEmbeddedPictures()) {
+            assertNotNull(picture.getPictureData());
+        }
+        source.close();
+    }
+
     @SuppressWarnings("resource")
     @Test
     public void testMergeWithChart() throws Exception {